@@ -0,0 +1,114 @@
+package mate.academy.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+public class CacheConfig {
+    public static final String CARS_CACHE = "cars";
+    public static final String CAR_PAGES_CACHE = "carPages";
+    public static final String PRINCIPALS_CACHE = "principals";
+    public static final String CHAT_IDS_CACHE = "chatIds";
+
+    @Value("${cache.cars.max-size:10000}")
+    private long carsMaxSize;
+
+    @Value("${cache.cars.ttl-minutes:10}")
+    private long carsTtlMinutes;
+
+    @Value("${cache.car-pages.max-size:500}")
+    private long carPagesMaxSize;
+
+    @Value("${cache.car-pages.ttl-minutes:1}")
+    private long carPagesTtlMinutes;
+
+    @Value("${cache.principals.max-size:10000}")
+    private long principalsMaxSize;
+
+    @Value("${cache.principals.ttl-minutes:1}")
+    private long principalsTtlMinutes;
+
+    @Value("${cache.chat-ids.max-size:100000}")
+    private long chatIdsMaxSize;
+
+    @Value("${cache.chat-ids.ttl-minutes:10}")
+    private long chatIdsTtlMinutes;
+
+    @Value("${cache.chat-ids.missing-ttl-seconds:30}")
+    private long missingChatIdsTtlSeconds;
+
+    /**
+     * The caching advice runs outside the transactional one, so evictions
+     * happen only after the write has committed and a reader that starts
+     * afterwards loads the new row. A reader that loaded the old row before
+     * the commit can still put it back after the eviction; such an entry
+     * lives until the next write or until its TTL runs out, which is why
+     * every cache here is bounded by one.
+     * Caches are declared up front rather than created on demand so the
+     * actuator binds their hit, miss and eviction counters to Micrometer at
+     * startup.
+     */
+    @Bean
+    public CacheManager cacheManager() {
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(List.of(
+                buildCache(CARS_CACHE, carsMaxSize, carsTtlMinutes),
+                buildCache(CAR_PAGES_CACHE, carPagesMaxSize, carPagesTtlMinutes),
+                buildCache(PRINCIPALS_CACHE, principalsMaxSize, principalsTtlMinutes),
+                buildChatIdsCache()
+        ));
+        return cacheManager;
+    }
+
+    /**
+     * Users without a chat are cached as an empty Optional for a short
+     * time only: a chat linked on any node shows up within that time even
+     * if nothing evicts the entry.
+     */
+    private CaffeineCache buildChatIdsCache() {
+        long linkedTtlNanos = Duration.ofMinutes(chatIdsTtlMinutes).toNanos();
+        long missingTtlNanos = Duration.ofSeconds(missingChatIdsTtlSeconds).toNanos();
+        return new CaffeineCache(CHAT_IDS_CACHE, Caffeine.newBuilder()
+                .maximumSize(chatIdsMaxSize)
+                .expireAfter(new Expiry<Object, Object>() {
+                    @Override
+                    public long expireAfterCreate(Object userId, Object chatId, long now) {
+                        return Optional.empty().equals(chatId) ? missingTtlNanos : linkedTtlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(
+                            Object userId, Object chatId, long now, long remaining) {
+                        return expireAfterCreate(userId, chatId, now);
+                    }
+
+                    @Override
+                    public long expireAfterRead(
+                            Object userId, Object chatId, long now, long remaining) {
+                        return remaining;
+                    }
+                })
+                .recordStats()
+                .build());
+    }
+
+    private CaffeineCache buildCache(String name, long maxSize, long ttlMinutes) {
+        return new CaffeineCache(name, Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build());
+    }
+}
@@ -2,8 +2,8 @@ package mate.academy.config;
 
 import lombok.RequiredArgsConstructor;
 import mate.academy.security.JwtAuthenticationFilter;
+import mate.academy.security.PublicEndpoint;
 import org.springframework.context.annotation.Bean;
-import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
@@ -36,15 +36,15 @@ public class SecurityConfig {
                 .cors(AbstractHttpConfigurer::disable)
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(
-                        auth -> auth
-                                .requestMatchers(HttpMethod.GET, "/cars").permitAll()
-                                .requestMatchers(HttpMethod.GET, "/cars/**").permitAll()
-                                .requestMatchers(
-                                        "/auth/**", "/health",
-                                        "/error", "/swagger-ui/**", "/v3/api-docs/**")
-                                .permitAll()
-                                .anyRequest()
-                                .authenticated()
+                        auth -> {
+                            for (PublicEndpoint endpoint : PublicEndpoint.ALL) {
+                                auth.requestMatchers(endpoint.method(), endpoint.pattern())
+                                        .permitAll();
+                            }
+                            auth.requestMatchers("/actuator/**").hasRole("MANAGER")
+                                    .anyRequest()
+                                    .authenticated();
+                        }
                 )
                 .sessionManagement(s -> s.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .addFilterBefore(authenticationFilter, UsernamePasswordAuthenticationFilter.class)
@@ -2,18 +2,28 @@ package mate.academy.controller;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import mate.academy.dto.user.RefreshTokenRequestDto;
 import mate.academy.dto.user.UserLoginRequestDto;
 import mate.academy.dto.user.UserLoginResponseDto;
 import mate.academy.dto.user.UserRegistrationRequestDto;
 import mate.academy.dto.user.UserResponseDto;
+import mate.academy.exception.BadRequestException;
 import mate.academy.exception.RegistrationException;
+import mate.academy.model.User;
 import mate.academy.security.AuthenticationService;
+import mate.academy.security.JwtAuthenticationFilter;
 import mate.academy.service.user.UserService;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
 @Tag(name = "User registration", description = "Endpoints for registration and authentication user")
@@ -26,8 +36,20 @@ public class AuthenticationController {
 
     @Operation(summary = "login user", description = "user authentication")
     @PostMapping("/login")
-    public UserLoginResponseDto login(@RequestBody @Valid UserLoginRequestDto requestDto) {
-        return authenticationService.authenticate(requestDto);
+    public UserLoginResponseDto login(
+            @RequestBody @Valid UserLoginRequestDto requestDto,
+            HttpServletRequest request
+    ) {
+        return authenticationService.authenticate(requestDto, request.getRemoteAddr());
+    }
+
+    @Operation(
+            summary = "refresh tokens",
+            description = "exchange a refresh token for a new access token and refresh token"
+    )
+    @PostMapping("/refresh")
+    public UserLoginResponseDto refresh(@RequestBody @Valid RefreshTokenRequestDto requestDto) {
+        return authenticationService.refresh(requestDto.refreshToken());
     }
 
     @Operation(summary = "registration user", description = "registration a new user")
@@ -36,4 +58,33 @@ public class AuthenticationController {
             throws RegistrationException {
         return userService.register(requestDto);
     }
+
+    @Operation(summary = "logout user",
+            description = "revoke the token of the current request and the refresh tokens")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @PostMapping("/logout")
+    public void logout(
+            HttpServletRequest request,
+            @AuthenticationPrincipal User currentUser
+    ) {
+        String token = JwtAuthenticationFilter.getToken(request);
+        if (token == null) {
+            throw new BadRequestException("Authorization header must carry a Bearer token");
+        }
+        authenticationService.logout(token, currentUser);
+    }
+
+    @PreAuthorize("hasRole('MANAGER') or #userId == null")
+    @Operation(
+            summary = "revoke all tokens",
+            description = "revoke every token of the current user or, for managers, of any user"
+    )
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @PostMapping("/revoke-all")
+    public void revokeAll(
+            @RequestParam(required = false) Long userId,
+            @AuthenticationPrincipal User currentUser
+    ) {
+        authenticationService.revokeAll(userId == null ? currentUser.getId() : userId);
+    }
 }
@@ -3,11 +3,13 @@ package mate.academy.controller;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import java.time.LocalDate;
 import lombok.RequiredArgsConstructor;
 import mate.academy.dto.car.CarDto;
 import mate.academy.service.car.CarService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -17,6 +19,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -51,6 +54,22 @@ public class CarController {
         return carService.findAll(pageable);
     }
 
+    @Operation(
+            summary = "Retrieve cars available for dates",
+            description = "Returns a paginated list of cars that have at least one free unit"
+                    + " on every day between the given dates, both inclusive. Bookings made"
+                    + " on other nodes are seen within a few seconds; until then such a car"
+                    + " can still be listed, and booking it is refused."
+    )
+    @GetMapping("/available")
+    public Page<CarDto> getAvailable(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            Pageable pageable
+    ) {
+        return carService.findAvailable(from, to, pageable);
+    }
+
     @Operation(
             summary = "Retrieve car by ID",
             description = "Fetches detailed information about"
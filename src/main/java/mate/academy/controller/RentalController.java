@@ -2,17 +2,25 @@ package mate.academy.controller;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
-import java.util.List;
+import java.time.Duration;
 import lombok.RequiredArgsConstructor;
+import mate.academy.dto.CursorPageResponse;
 import mate.academy.dto.rental.RentalDetailDto;
+import mate.academy.dto.rental.RentalExportFormat;
 import mate.academy.dto.rental.RentalFilterRequestDto;
 import mate.academy.dto.rental.RentalRequestDto;
 import mate.academy.model.User;
+import mate.academy.service.rental.RentalExportService;
 import mate.academy.service.rental.RentalService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -25,6 +33,8 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @Tag(
         name = "Rental Management",
@@ -37,6 +47,10 @@ import org.springframework.web.bind.annotation.RestController;
 public class RentalController {
     private Logger logger = LoggerFactory.getLogger(RentalController.class);
     private final RentalService rentalService;
+    private final RentalExportService rentalExportService;
+
+    @Value("${rental.export.timeout-minutes:60}")
+    private long exportTimeoutMinutes;
 
     @PreAuthorize("hasRole('CUSTOMER')")
     @Operation(
@@ -53,42 +67,66 @@ public class RentalController {
         return rentalService.createRental(requestDto, user.getEmail());
     }
 
-    @PreAuthorize("hasRole('MANAGER') or (#userId == null && principal.id == #currentUser.id)")
+    @PreAuthorize("hasRole('MANAGER') "
+            + "or (#filter.userId == null && principal.id == #currentUser.id)")
     @Operation(
             summary = "Retrieve all rentals",
             description = """
-            Fetches a list of rentals with optional filters for user-specific rentals 
-            and active status.
+            Fetches a page of rentals ordered by rental date. Filters by user, car,
+            car type, active status, overdue status and rental/return date ranges
+            can be combined freely. Pass the returned
+            nextCursor as the after parameter to get the following page.
             Requires MANAGER role or retrieves rentals for the currently 
             authenticated user if no user ID is specified.
             """
     )
     @ResponseStatus(HttpStatus.OK)
     @GetMapping
-    public List<RentalDetailDto> getRentals(
-            @RequestParam(required = false) Long userId,
-            @RequestParam(required = false) Boolean isActive,
+    public CursorPageResponse<RentalDetailDto> getRentals(
+            @ParameterObject RentalFilterRequestDto filter,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int limit,
             @AuthenticationPrincipal User currentUser
     ) {
-        logger.info("Request received by user: {}, role: {}, userId: {}, isActive: {}",
-                currentUser.getEmail(), currentUser.getRole(), userId, isActive);
-
-        RentalFilterRequestDto filter = new RentalFilterRequestDto();
-        filter.setUserId(userId);
-        filter.setIsActive(isActive);
+        logger.info("Request received by user: {}, role: {}, filter: {}",
+                currentUser.getEmail(), currentUser.getRole(), filter);
 
-        List<RentalDetailDto> rentals = rentalService.getRentals(filter, currentUser);
+        CursorPageResponse<RentalDetailDto> rentals = rentalService.getRentals(
+                filter, currentUser, after, limit
+        );
 
-        logger.info("Returning {} rentals", rentals.size());
+        logger.info("Returning {} rentals", rentals.content().size());
 
         return rentals;
     }
 
+    @PreAuthorize("hasRole('MANAGER')")
+    @Operation(
+            summary = "Export all rentals",
+            description = "Streams every rental as newline-delimited JSON (format=ndjson)"
+                    + " or CSV (format=csv). Requires MANAGER role."
+    )
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportRentals(
+            @RequestParam(defaultValue = "ndjson") String format,
+            HttpServletRequest request
+    ) {
+        RentalExportFormat exportFormat = RentalExportFormat.from(format);
+        // A full export outlasts the default async timeout; only this one gets longer.
+        WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest()
+                .setTimeout(Duration.ofMinutes(exportTimeoutMinutes).toMillis());
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=rentals." + exportFormat.getExtension())
+                .body(out -> rentalExportService.export(exportFormat, out));
+    }
+
     @PreAuthorize("hasRole('CUSTOMER')")
     @Operation(
             summary = "Complete a rental",
             description = "Marks a rental as completed by the customer,"
-                    + " updating the car inventory. Requires CUSTOMER role."
+                    + " releasing the booked car unit. Requires CUSTOMER role."
     )
     @PatchMapping("/{id}/complete")
     public ResponseEntity<String> completeRental(@PathVariable Long id) {
@@ -0,0 +1,6 @@
+package mate.academy.dto;
+
+import java.util.List;
+
+public record CursorPageResponse<T>(List<T> content, String nextCursor) {
+}
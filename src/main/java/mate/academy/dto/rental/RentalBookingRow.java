@@ -0,0 +1,17 @@
+package mate.academy.dto.rental;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RentalBookingRow {
+    private Long rentalId;
+    private Long carId;
+    private int carInventory;
+    private LocalDateTime rentalDate;
+    private LocalDateTime returnDate;
+}
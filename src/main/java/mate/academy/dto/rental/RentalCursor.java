@@ -0,0 +1,41 @@
+package mate.academy.dto.rental;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import mate.academy.exception.BadRequestException;
+
+/**
+ * Position of the last rental on a page, ordered by (rental date, id).
+ * Clients only see it as an opaque token.
+ */
+public record RentalCursor(LocalDateTime rentalDate, Long id) {
+    private static final String SEPARATOR = "|";
+
+    public static RentalCursor of(RentalDetailDto rental) {
+        return new RentalCursor(rental.getRentalDate(), rental.getId());
+    }
+
+    public static RentalCursor decode(String token) {
+        try {
+            String decoded = new String(
+                    Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8
+            );
+            int separator = decoded.indexOf(SEPARATOR);
+            return new RentalCursor(
+                    LocalDateTime.parse(decoded.substring(0, separator)),
+                    Long.valueOf(decoded.substring(separator + 1))
+            );
+        } catch (IllegalArgumentException | IndexOutOfBoundsException
+                 | DateTimeParseException e) {
+            throw new BadRequestException("Invalid cursor: " + token);
+        }
+    }
+
+    public String encode() {
+        String raw = rentalDate + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,9 +1,13 @@
 package mate.academy.dto.rental;
 
 import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class RentalDetailDto {
     private Long id;
     private LocalDateTime rentalDate;
@@ -0,0 +1,24 @@
+package mate.academy.dto.rental;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import mate.academy.exception.BadRequestException;
+
+@Getter
+@RequiredArgsConstructor
+public enum RentalExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    public static RentalExportFormat from(String value) {
+        for (RentalExportFormat format : values()) {
+            if (format.name().equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        throw new BadRequestException("Unsupported export format: " + value);
+    }
+}
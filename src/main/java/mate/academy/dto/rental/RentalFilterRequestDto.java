@@ -1,9 +1,23 @@
 package mate.academy.dto.rental;
 
+import java.time.LocalDateTime;
 import lombok.Data;
+import mate.academy.model.Car;
+import org.springframework.format.annotation.DateTimeFormat;
 
 @Data
 public class RentalFilterRequestDto {
     private Long userId;
+    private Long carId;
+    private Car.Type carType;
     private Boolean isActive;
+    private Boolean isOverdue;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime rentalDateFrom;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime rentalDateTo;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime returnDateFrom;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime returnDateTo;
 }
@@ -0,0 +1,19 @@
+package mate.academy.dto.rental;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RentalNotificationRow {
+    private Long rentalId;
+    private Long userId;
+    private String chatId;
+    private String carBrand;
+    private String carModel;
+    private LocalDateTime rentalDate;
+    private LocalDateTime returnDate;
+}
@@ -0,0 +1,9 @@
+package mate.academy.dto.user;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record RefreshTokenRequestDto(
+        @NotBlank
+        String refreshToken
+) {
+}
@@ -0,0 +1,11 @@
+package mate.academy.exception;
+
+/**
+ * Rejected client input. The message is written for the client and is
+ * returned as is with a 400.
+ */
+public class BadRequestException extends RuntimeException {
+    public BadRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package mate.academy.exception;
+
+public class InvalidDateRangeException extends BadRequestException {
+    public InvalidDateRangeException(String message) {
+        super(message);
+    }
+}
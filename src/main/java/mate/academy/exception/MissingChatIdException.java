@@ -0,0 +1,7 @@
+package mate.academy.exception;
+
+public class MissingChatIdException extends NotificationException {
+    public MissingChatIdException(String message) {
+        super(message);
+    }
+}
@@ -20,7 +20,8 @@ import org.springframework.security.core.userdetails.UserDetails;
 
 @Entity
 @Table(name = "users")
-@SQLDelete(sql = "UPDATE users SET is_deleted = true WHERE id=?")
+@SQLDelete(sql = "UPDATE users SET is_deleted = true, token_version = token_version + 1 "
+        + "WHERE id=?")
 @SQLRestriction("is_deleted = false")
 @Getter
 @Setter
@@ -51,6 +52,9 @@ public class User implements UserDetails {
     @Column(nullable = false, name = "is_deleted")
     private boolean isDeleted = false;
 
+    @Column(nullable = false, name = "token_version")
+    private int tokenVersion;
+
     public enum Role {
         CUSTOMER,
         MANAGER
@@ -0,0 +1,71 @@
+package mate.academy.notification;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import java.util.Optional;
+import mate.academy.config.CacheConfig;
+import mate.academy.model.User;
+import mate.academy.repository.UserRepository;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Remembers which Telegram chat belongs to which user, so sending a
+ * notification does not cost a users lookup. Users without a chat are
+ * cached too, as an empty entry, since they are the ones notifications
+ * keep asking about; those entries expire after
+ * cache.chat-ids.missing-ttl-seconds, so a chat linked on another node is
+ * picked up soon. Code that writes a chat id calls {@link #evict} so this
+ * node sees it at once.
+ */
+@Component
+public class ChatIdResolver {
+    private final Cache<Object, Object> cache;
+    private final UserRepository userRepository;
+
+    public ChatIdResolver(CacheManager cacheManager, UserRepository userRepository) {
+        CaffeineCache caffeineCache =
+                (CaffeineCache) cacheManager.getCache(CacheConfig.CHAT_IDS_CACHE);
+        this.cache = caffeineCache.getNativeCache();
+        this.userRepository = userRepository;
+    }
+
+    @SuppressWarnings("unchecked")
+    public Optional<String> resolve(Long userId) {
+        return (Optional<String>) cache.get(userId, id -> userRepository.findChatIdById(userId));
+    }
+
+    /**
+     * Takes the chat id of a user that is already loaded.
+     */
+    public void remember(User user) {
+        remember(user.getId(), user.getChatId());
+    }
+
+    /**
+     * Takes a chat id read alongside other data, as the daily digest does.
+     */
+    public void remember(Long userId, String chatId) {
+        cache.put(userId, Optional.ofNullable(chatId));
+    }
+
+    /**
+     * To be called wherever a user's chat id is written. Inside a
+     * transaction the eviction waits for the commit, otherwise a
+     * notification sent in between could cache the old chat id again.
+     */
+    public void evict(Long userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cache.invalidate(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cache.invalidate(userId);
+            }
+        });
+    }
+}
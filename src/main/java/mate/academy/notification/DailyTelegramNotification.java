@@ -1,38 +1,120 @@
 package mate.academy.notification;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import lombok.RequiredArgsConstructor;
-import mate.academy.model.Rental;
+import mate.academy.dto.rental.RentalNotificationRow;
 import mate.academy.repository.RentalRepository;
+import mate.academy.service.lease.JobLeaseService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+/**
+ * Sends every user with an active rental one digest a day.
+ * <p>
+ * Active rentals are read as projection rows in keyset pages ordered by
+ * user, so a user's rentals arrive together and the digest goes out as
+ * soon as the next user starts. Memory is one page of rows and digests,
+ * and completed rentals are never read. The digests finished on a page are
+ * written to the outbox together, and {@link NotificationOutboxRelay}
+ * sends them with its throttling, retries and dead-lettering. Each run
+ * records notifications.daily.duration and notifications.daily.messages.
+ * <p>
+ * With several nodes only the one holding the job lease sends; the lease
+ * is kept for a while after the run so a node firing late skips too.
+ */
 @Service
 @RequiredArgsConstructor
 public class DailyTelegramNotification {
+    private static final String LEASE_NAME = "daily-telegram-notification";
+
+    private final Logger logger = LoggerFactory.getLogger(DailyTelegramNotification.class);
     private final RentalRepository rentalRepository;
-    private final NotificationService notificationService;
+    private final TelegramNotificationService notificationService;
+    private final MeterRegistry meterRegistry;
+    private final JobLeaseService jobLeaseService;
+
+    @Value("${notification.daily.page-size:500}")
+    private int pageSize;
+
+    @Value("${notification.daily.lease-min-hold-minutes:60}")
+    private long leaseMinHoldMinutes;
 
     @Scheduled(cron = "0 0 10 * * *")
     public void sendDailyNotification() {
-        List<Rental> nonOverdueRentals = rentalRepository
-                .findByReturnDateAfterOrActualReturnDateIsNotNull(LocalDateTime.now());
-
-        if (!nonOverdueRentals.isEmpty()) {
-            for (Rental rental : nonOverdueRentals) {
-                notificationService.sendNoOverdueRentalNotification(rental);
-            }
+        Duration minHold = Duration.ofMinutes(leaseMinHoldMinutes);
+        if (!jobLeaseService.runExclusively(LEASE_NAME, minHold, this::sendDigests)) {
+            logger.info("Daily notification is already handled by another node");
         }
+    }
 
-        List<Rental> overdueRentals = rentalRepository
-                .findByReturnDateBeforeAndActualReturnDateIsNull(LocalDateTime.now());
+    private void sendDigests() {
+        final long start = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        int queued = 0;
+        int failed = 0;
 
-        if (!overdueRentals.isEmpty()) {
-            for (Rental rental : overdueRentals) {
-                notificationService.sendNoOverdueRentalNotification(rental);
+        RentalDigest digest = null;
+        List<RentalNotificationRow> page = nextPage(0L, 0L);
+        while (!page.isEmpty()) {
+            List<RentalDigest> finished = new ArrayList<>();
+            for (RentalNotificationRow row : page) {
+                if (digest == null || !digest.getUserId().equals(row.getUserId())) {
+                    if (digest != null) {
+                        finished.add(digest);
+                    }
+                    digest = new RentalDigest(row.getUserId(), row.getChatId());
+                }
+                digest.add(row, now);
+            }
+            RentalNotificationRow last = page.get(page.size() - 1);
+            page = page.size() < pageSize
+                    ? List.of()
+                    : nextPage(last.getUserId(), last.getRentalId());
+            if (page.isEmpty()) {
+                finished.add(digest);
+            }
+            if (enqueue(finished)) {
+                queued += finished.size();
+            } else {
+                failed += finished.size();
             }
         }
+
+        long elapsedNanos = System.nanoTime() - start;
+        meterRegistry.timer("notifications.daily.duration")
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+        meterRegistry.counter("notifications.daily.messages", "result", "queued")
+                .increment(queued);
+        meterRegistry.counter("notifications.daily.messages", "result", "failed")
+                .increment(failed);
+        logger.info("Daily notification queued {} digests, {} failed, in {} ms",
+                queued, failed, TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+    }
+
+    private List<RentalNotificationRow> nextPage(Long afterUserId, Long afterRentalId) {
+        return rentalRepository.findActiveNotificationRows(
+                afterUserId, afterRentalId, PageRequest.of(0, pageSize));
     }
 
+    private boolean enqueue(List<RentalDigest> digests) {
+        if (digests.isEmpty()) {
+            return true;
+        }
+        try {
+            notificationService.enqueueDigests(digests);
+            return true;
+        } catch (RuntimeException e) {
+            logger.warn("Failed to queue {} daily digests", digests.size(), e);
+            return false;
+        }
+    }
 }
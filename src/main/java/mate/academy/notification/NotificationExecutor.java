@@ -0,0 +1,68 @@
+package mate.academy.notification;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sends notifications on a small fixed pool with a bounded queue instead of
+ * the shared @Async executor. It is deliberately not an Executor bean, so
+ * Boot keeps its own applicationTaskExecutor. Queue depth, active threads
+ * and task timings are published as executor.* metrics tagged
+ * name=notification, and every task turned away counts towards
+ * notifications.rejected.
+ */
+@Component
+public class NotificationExecutor {
+    private final ThreadPoolExecutor pool;
+    private final ExecutorService executor;
+    private final Counter rejected;
+
+    public NotificationExecutor(
+            MeterRegistry meterRegistry,
+            @Value("${notification.executor.threads:4}") int threads,
+            @Value("${notification.executor.queue-capacity:500}") int queueCapacity
+    ) {
+        pool = new ThreadPoolExecutor(
+                threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("notification-"),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        executor = ExecutorServiceMetrics.monitor(meterRegistry, pool, "notification");
+        rejected = meterRegistry.counter("notifications.rejected");
+    }
+
+    /**
+     * Queues the task if there is room and never blocks the caller.
+     *
+     * @return false if the queue is full and the task was not accepted
+     */
+    public boolean tryExecute(Runnable task) {
+        try {
+            executor.execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            return false;
+        }
+    }
+
+    public int remainingCapacity() {
+        return pool.getQueue().remainingCapacity();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
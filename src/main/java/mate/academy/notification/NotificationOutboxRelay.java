@@ -0,0 +1,193 @@
+package mate.academy.notification;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import mate.academy.exception.MissingChatIdException;
+import mate.academy.model.PendingNotification;
+import mate.academy.repository.PendingNotificationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Drains pending_notifications with at-least-once delivery.
+ * <p>
+ * Each poll claims a batch of due rows by pushing their next attempt past
+ * the in-flight timeout, and hands them to {@link NotificationExecutor}
+ * once the claim is committed. A delivered row is deleted. A failed one is
+ * retried with exponential backoff, and after the last attempt it stays in
+ * the table as DEAD for someone to look at. A row whose user has no chat
+ * any more cannot succeed on a retry and is deleted instead. If the node
+ * dies mid-flight the claim simply runs out and the row is picked up again.
+ * <p>
+ * A send only reserves a slot in the rate limiter and completes later, so
+ * the executor queue empties long before Telegram has seen the messages.
+ * What bounds the batch is the number of sends still in flight, released
+ * when each one completes: a slow or throttled Telegram leaves the backlog
+ * in the table rather than in memory. The limit divided by the per-chat
+ * rate must stay below the in-flight timeout, or claims would run out
+ * while their sends are still waiting for a slot and the rows would be
+ * sent twice.
+ */
+@Component
+public class NotificationOutboxRelay {
+    private static final int MAX_ERROR_LENGTH = 512;
+
+    private final Logger logger = LoggerFactory.getLogger(NotificationOutboxRelay.class);
+    private final TelegramNotificationService notificationService;
+    private final NotificationExecutor notificationExecutor;
+    private final PendingNotificationRepository pendingNotificationRepository;
+    private final Counter delivered;
+    private final Counter retried;
+    private final Counter dead;
+    private final Counter skipped;
+    private final Semaphore inFlight;
+
+    @Value("${notification.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${notification.outbox.in-flight-timeout-seconds:300}")
+    private long inFlightTimeoutSeconds;
+
+    @Value("${notification.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${notification.outbox.backoff-base-seconds:10}")
+    private long backoffBaseSeconds;
+
+    @Value("${notification.outbox.backoff-max-seconds:3600}")
+    private long backoffMaxSeconds;
+
+    public NotificationOutboxRelay(
+            TelegramNotificationService notificationService,
+            NotificationExecutor notificationExecutor,
+            PendingNotificationRepository pendingNotificationRepository,
+            MeterRegistry meterRegistry,
+            @Value("${notification.outbox.max-in-flight:100}") int maxInFlight
+    ) {
+        this.notificationService = notificationService;
+        this.notificationExecutor = notificationExecutor;
+        this.pendingNotificationRepository = pendingNotificationRepository;
+        this.delivered = meterRegistry.counter("notifications.outbox", "result", "delivered");
+        this.retried = meterRegistry.counter("notifications.outbox", "result", "retried");
+        this.dead = meterRegistry.counter("notifications.outbox", "result", "dead");
+        this.skipped = meterRegistry.counter("notifications.outbox", "result", "skipped");
+        this.inFlight = new Semaphore(maxInFlight);
+        meterRegistry.gauge("notifications.outbox.in.flight", inFlight,
+                permits -> maxInFlight - permits.availablePermits());
+    }
+
+    @Scheduled(fixedDelayString = "${notification.outbox.poll-interval-ms:1000}")
+    @Transactional
+    public void relay() {
+        int capacity = Math.min(Math.min(notificationExecutor.remainingCapacity(),
+                inFlight.availablePermits()), batchSize);
+        if (capacity == 0) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime claimedUntil = now.plusSeconds(inFlightTimeoutSeconds);
+        List<Delivery> claimed = new ArrayList<>();
+        for (PendingNotification pending : pendingNotificationRepository
+                .findDue(now, PageRequest.of(0, capacity))) {
+            pending.setNextAttemptAt(claimedUntil);
+            claimed.add(new Delivery(
+                    pending.getId(), pending.getUserId(), pending.getMessage(),
+                    pending.getAttempts()));
+        }
+        if (!claimed.isEmpty()) {
+            afterCommit(() -> claimed.forEach(this::dispatch));
+        }
+    }
+
+    /**
+     * Only the relay takes permits and it never claims more rows than were
+     * free, so acquiring here does not block.
+     */
+    private void dispatch(Delivery delivery) {
+        inFlight.acquireUninterruptibly();
+        if (!notificationExecutor.tryExecute(() -> deliver(delivery))) {
+            inFlight.release();
+        }
+    }
+
+    private void deliver(Delivery delivery) {
+        try {
+            notificationService.sendAsync(delivery.userId(), delivery.message())
+                    .whenComplete((result, e) -> {
+                        try {
+                            if (e == null) {
+                                pendingNotificationRepository.deleteById(delivery.id());
+                                delivered.increment();
+                            } else {
+                                failed(delivery, e);
+                            }
+                        } finally {
+                            inFlight.release();
+                        }
+                    });
+        } catch (RuntimeException e) {
+            inFlight.release();
+            failed(delivery, e);
+        }
+    }
+
+    private void failed(Delivery delivery, Throwable error) {
+        Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+        if (cause instanceof MissingChatIdException) {
+            pendingNotificationRepository.deleteById(delivery.id());
+            skipped.increment();
+            return;
+        }
+        String lastError = String.valueOf(cause.getMessage());
+        if (lastError.length() > MAX_ERROR_LENGTH) {
+            lastError = lastError.substring(0, MAX_ERROR_LENGTH);
+        }
+        int attempts = delivery.attempts() + 1;
+        LocalDateTime now = LocalDateTime.now();
+        if (attempts >= maxAttempts) {
+            pendingNotificationRepository.markFailed(delivery.id(),
+                    PendingNotification.Status.DEAD, attempts, now, lastError);
+            dead.increment();
+            logger.warn("Notification {} for user {} gave up after {} attempts: {}",
+                    delivery.id(), delivery.userId(), attempts, lastError);
+            return;
+        }
+        pendingNotificationRepository.markFailed(delivery.id(),
+                PendingNotification.Status.PENDING, attempts,
+                now.plusSeconds(backoffSeconds(attempts)), lastError);
+        retried.increment();
+    }
+
+    private long backoffSeconds(int attempts) {
+        long factor = 1L << Math.min(attempts - 1, 20);
+        return Math.min(backoffBaseSeconds * factor, backoffMaxSeconds);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private record Delivery(Long id, Long userId, String message, int attempts) {
+    }
+}
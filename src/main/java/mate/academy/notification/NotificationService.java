@@ -2,10 +2,13 @@ package mate.academy.notification;
 
 import mate.academy.model.Payment;
 import mate.academy.model.Rental;
+import mate.academy.model.User;
 
 public interface NotificationService {
     void sendNotification(Long userId, String message);
 
+    void sendNotification(User user, String message);
+
     void sendNewRentalNotification(Rental rental);
 
     void sendOverdueRentalNotification(Rental rental);
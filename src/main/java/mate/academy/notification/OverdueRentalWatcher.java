@@ -0,0 +1,151 @@
+package mate.academy.notification;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import mate.academy.dto.rental.RentalBookingRow;
+import mate.academy.model.Rental;
+import mate.academy.repository.RentalRepository;
+import mate.academy.service.lease.JobLeaseService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends the overdue alert within a tick of the return date instead of
+ * waiting for the next daily run.
+ * <p>
+ * Return dates of active rentals sit in a {@link TimingWheel}: loaded at
+ * startup, added by createRental and removed by completeRental once their
+ * transaction commits. All active rentals are watched, whether or not the
+ * user has linked a chat yet; the outbox drops the alert if there is still
+ * none when it fires. Nothing is polled; when a deadline fires the rental
+ * is read once, to check it is still open and to render the message, and
+ * the alert goes into the notification outbox. That work runs on its own
+ * pool, so a batch of rentals due at the same minute does not hold up the
+ * ticker. Rentals that were already overdue at startup are left to the
+ * daily digest.
+ */
+@Component
+public class OverdueRentalWatcher {
+    private static final String LEASE_PREFIX = "overdue-rental-";
+    private static final Duration ALERT_LEASE_HOLD = Duration.ofDays(1);
+
+    private final Logger logger = LoggerFactory.getLogger(OverdueRentalWatcher.class);
+    private final RentalRepository rentalRepository;
+    private final NotificationService notificationService;
+    private final JobLeaseService jobLeaseService;
+    private final TimingWheel wheel;
+    private final long tickMillis;
+    private final ScheduledExecutorService ticker;
+    private final ExecutorService alerts;
+    private final Counter fired;
+
+    public OverdueRentalWatcher(
+            RentalRepository rentalRepository,
+            NotificationService notificationService,
+            JobLeaseService jobLeaseService,
+            MeterRegistry meterRegistry,
+            @Value("${notification.overdue.tick-seconds:60}") long tickSeconds,
+            @Value("${notification.overdue.wheel-size:1440}") int wheelSize,
+            @Value("${notification.overdue.alert-threads:2}") int alertThreads
+    ) {
+        this.rentalRepository = rentalRepository;
+        this.notificationService = notificationService;
+        this.jobLeaseService = jobLeaseService;
+        this.tickMillis = TimeUnit.SECONDS.toMillis(tickSeconds);
+        this.wheel = new TimingWheel(
+                tickMillis, wheelSize, System.currentTimeMillis(), this::fire);
+        this.ticker = Executors.newSingleThreadScheduledExecutor(
+                new CustomizableThreadFactory("overdue-"));
+        this.alerts = ExecutorServiceMetrics.monitor(
+                meterRegistry,
+                Executors.newFixedThreadPool(
+                        alertThreads, new CustomizableThreadFactory("overdue-alert-")),
+                "overdue"
+        );
+        this.fired = meterRegistry.counter("notifications.overdue.fired");
+        meterRegistry.gauge("notifications.overdue.watched", wheel, TimingWheel::size);
+    }
+
+    @PostConstruct
+    public void init() {
+        LocalDateTime now = LocalDateTime.now();
+        for (RentalBookingRow row : rentalRepository.findActiveBookingRows()) {
+            if (row.getReturnDate().isAfter(now)) {
+                wheel.schedule(row.getRentalId(), toMillis(row.getReturnDate()));
+            }
+        }
+        ticker.scheduleAtFixedRate(() -> tick(System.currentTimeMillis()),
+                tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void watch(Rental rental) {
+        afterCommit(() -> wheel.schedule(rental.getId(), toMillis(rental.getReturnDate())));
+    }
+
+    public void unwatch(Long rentalId) {
+        afterCommit(() -> wheel.cancel(rentalId));
+    }
+
+    void tick(long nowMillis) {
+        wheel.advanceTo(nowMillis);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdown();
+        alerts.shutdown();
+    }
+
+    private void fire(long rentalId) {
+        alerts.execute(() -> alert(rentalId));
+    }
+
+    /**
+     * Every node watches the rentals it loaded at startup, so the alert is
+     * claimed through a per-rental lease and only one node sends it.
+     */
+    private void alert(long rentalId) {
+        try {
+            jobLeaseService.runExclusively(LEASE_PREFIX + rentalId, ALERT_LEASE_HOLD,
+                    () -> rentalRepository.findActiveById(rentalId)
+                            .ifPresent(rental -> {
+                                notificationService.sendOverdueRentalNotification(rental);
+                                fired.increment();
+                            }));
+        } catch (RuntimeException e) {
+            logger.warn("Overdue alert for rental {} failed: {}", rentalId, e.getMessage());
+        }
+    }
+
+    private long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
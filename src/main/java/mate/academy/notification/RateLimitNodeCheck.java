@@ -0,0 +1,54 @@
+package mate.academy.notification;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.atomic.AtomicInteger;
+import mate.academy.service.lease.JobLeaseService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Each node sends at the global Telegram rate divided by
+ * telegram.rate-limit.nodes, so more nodes than configured exceed the
+ * per-bot limit together. This compares the setting with the nodes alive
+ * in job_leases, publishes the count as telegram.rate-limit.live-nodes and
+ * warns on every check while too many are running.
+ */
+@Component
+public class RateLimitNodeCheck {
+    private final Logger logger = LoggerFactory.getLogger(RateLimitNodeCheck.class);
+    private final JobLeaseService jobLeaseService;
+    private final int configuredNodes;
+    private final AtomicInteger liveNodes = new AtomicInteger();
+
+    public RateLimitNodeCheck(
+            JobLeaseService jobLeaseService,
+            MeterRegistry meterRegistry,
+            @Value("${telegram.rate-limit.nodes:1}") int configuredNodes
+    ) {
+        this.jobLeaseService = jobLeaseService;
+        this.configuredNodes = configuredNodes;
+        meterRegistry.gauge("telegram.rate-limit.live-nodes", liveNodes);
+    }
+
+    @Scheduled(
+            fixedDelayString = "${telegram.rate-limit.node-check-interval-ms:60000}",
+            initialDelayString = "${telegram.rate-limit.node-check-interval-ms:60000}"
+    )
+    public void check() {
+        int live;
+        try {
+            live = jobLeaseService.countLiveNodes();
+        } catch (RuntimeException e) {
+            logger.warn("Failed to count live nodes: {}", e.getMessage());
+            return;
+        }
+        liveNodes.set(live);
+        if (live > configuredNodes) {
+            logger.warn("{} nodes are running but telegram.rate-limit.nodes is {}, "
+                    + "together they exceed the Telegram global limit", live, configuredNodes);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package mate.academy.notification;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import mate.academy.dto.rental.RentalNotificationRow;
+
+/**
+ * Everything one user hears from the daily job, rendered as one message.
+ */
+class RentalDigest {
+    private final Long userId;
+    private final String chatId;
+    private final List<RentalNotificationRow> overdue = new ArrayList<>();
+    private final List<RentalNotificationRow> onTime = new ArrayList<>();
+
+    RentalDigest(Long userId, String chatId) {
+        this.userId = userId;
+        this.chatId = chatId;
+    }
+
+    Long getUserId() {
+        return userId;
+    }
+
+    String getChatId() {
+        return chatId;
+    }
+
+    void add(RentalNotificationRow rental, LocalDateTime now) {
+        if (rental.getReturnDate().isBefore(now)) {
+            overdue.add(rental);
+        } else {
+            onTime.add(rental);
+        }
+    }
+
+    String render() {
+        StringBuilder message = new StringBuilder();
+        if (overdue.isEmpty()) {
+            message.append("No rentals overdue today, thank you!\n");
+        } else {
+            message.append("Overdue Rental Alert!🚨\n\n");
+            overdue.forEach(rental -> appendRental(message, rental));
+        }
+        if (!onTime.isEmpty()) {
+            message.append("\nActive rentals:\n");
+            onTime.forEach(rental -> appendRental(message, rental));
+        }
+        return message.toString();
+    }
+
+    private void appendRental(StringBuilder message, RentalNotificationRow rental) {
+        message.append("- ")
+                .append(rental.getCarBrand()).append(' ')
+                .append(rental.getCarModel())
+                .append(", return date: ").append(rental.getReturnDate())
+                .append('\n');
+    }
+}
@@ -3,29 +3,21 @@ package mate.academy.notification;
 import java.util.List;
 import java.util.Map;
 import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.annotation.Value;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
-import org.springframework.web.client.RestTemplate;
 
 @Component
 @RequiredArgsConstructor
 public class TelegramBot {
-    @Value("${telegram.api.url}")
-    private String telegramApiUrl;
-
-    private final RestTemplate restTemplate;
-    @Value("${telegram.bot.token}")
-    private String botToken;
+    private final Logger logger = LoggerFactory.getLogger(TelegramBot.class);
+    private final TelegramClient telegramClient;
+    private final ThrottledTelegramSender telegramSender;
     private int lastUpdatedId;
 
     public void checkTelegramUpdates() {
-        String url = String.format(
-                "%s%s/getUpdates?offset=%d",
-                telegramApiUrl, botToken, lastUpdatedId + 1
-        );
-
         try {
-            Map<String, Object> response = restTemplate.getForObject(url, Map.class);
+            Map<String, Object> response = telegramClient.getUpdates(lastUpdatedId + 1);
             List<Map<String, Object>> updates = (List<Map<String, Object>>) response.get("result");
 
             if (updates != null && !updates.isEmpty()) {
@@ -44,7 +36,7 @@ public class TelegramBot {
                 }
             }
         } catch (Exception e) {
-            e.printStackTrace();
+            logger.warn("Failed to check Telegram updates", e);
         }
     }
 
@@ -62,15 +54,10 @@ public class TelegramBot {
                 If you have any questions, use the /help command.
                 """;
 
-        String url = String.format(
-                "%s%s/sendMessage?chat_id=%s&text=%s",
-                telegramApiUrl, botToken, chatId, message
-        );
-
         try {
-            restTemplate.getForObject(url, String.class);
+            telegramSender.send(chatId, message).join();
         } catch (Exception e) {
-            System.err.println("Failed to send message: " + e.getMessage());
+            logger.warn("Failed to send welcome message to chat {}", chatId, e);
         }
     }
 }
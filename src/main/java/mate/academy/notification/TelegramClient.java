@@ -0,0 +1,47 @@
+package mate.academy.notification;
+
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Thin wrapper over the Telegram Bot API. Requests are built from URI
+ * templates, so message text is encoded properly and the bot token never
+ * ends up in the http.client.requests uri tag.
+ */
+@Component
+public class TelegramClient {
+    private static final ParameterizedTypeReference<Map<String, Object>> JSON_OBJECT =
+            new ParameterizedTypeReference<>() {
+            };
+
+    private final RestTemplate restTemplate;
+    private final String botToken;
+    private final String sendMessageTemplate;
+    private final String getUpdatesTemplate;
+
+    public TelegramClient(
+            RestTemplate restTemplate,
+            @Value("${telegram.api.url}") String telegramApiUrl,
+            @Value("${telegram.bot.token}") String botToken
+    ) {
+        this.restTemplate = restTemplate;
+        this.botToken = botToken;
+        this.sendMessageTemplate = telegramApiUrl
+                + "{token}/sendMessage?chat_id={chatId}&text={text}";
+        this.getUpdatesTemplate = telegramApiUrl + "{token}/getUpdates?offset={offset}";
+    }
+
+    public void sendMessage(String chatId, String text) {
+        restTemplate.getForObject(sendMessageTemplate, String.class, botToken, chatId, text);
+    }
+
+    public Map<String, Object> getUpdates(int offset) {
+        return restTemplate.exchange(
+                getUpdatesTemplate, HttpMethod.GET, null, JSON_OBJECT, botToken, offset
+        ).getBody();
+    }
+}
@@ -1,51 +1,58 @@
 package mate.academy.notification;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import lombok.RequiredArgsConstructor;
-import mate.academy.exception.EntityNotFoundException;
+import mate.academy.exception.MissingChatIdException;
 import mate.academy.exception.NotificationException;
 import mate.academy.model.Payment;
+import mate.academy.model.PendingNotification;
 import mate.academy.model.Rental;
 import mate.academy.model.User;
-import mate.academy.repository.UserRepository;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.annotation.Async;
+import mate.academy.repository.PendingNotificationRepository;
+import org.hibernate.Hibernate;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
+/**
+ * Rental and payment messages are rendered on the calling thread, while the
+ * entities are still attached, and written to pending_notifications in the
+ * caller's transaction. Nothing is sent if that transaction rolls back, and
+ * the request never waits for Telegram; {@link NotificationOutboxRelay}
+ * delivers the rows afterwards through {@link ThrottledTelegramSender}.
+ * The daily digests take the same path, so they get the same retries.
+ */
 @Service
 @RequiredArgsConstructor
 public class TelegramNotificationService implements NotificationService {
-    @Value("${telegram.api.url}")
-    private String telegramApiUrl;
-    private final RestTemplate restTemplate;
-    private final UserRepository userRepository;
-    @Value("${telegram.bot.token}")
-    private String botToken;
-
+    private final ThrottledTelegramSender telegramSender;
+    private final ChatIdResolver chatIdResolver;
+    private final PendingNotificationRepository pendingNotificationRepository;
+
+    /**
+     * Waits until the throttled send has gone through, so the caller learns
+     * whether it failed.
+     */
     @Override
     public void sendNotification(Long userId, String message) {
-        User user = userRepository.findById(userId).orElseThrow(
-                () -> new EntityNotFoundException("Can't find user with id: " + userId)
-        );
-        String chatId = user.getChatId();
-
-        if (chatId == null) {
-            throw new NotificationException("User with id: " + userId + " don't have chat id");
-        }
-
-        String url = String.format(
-                "%s%s/sendMessage?chat_id=%s&text=%s",
-                telegramApiUrl, botToken, chatId, message
-        );
+        await(sendAsync(userId, message));
+    }
 
-        try {
-            restTemplate.getForObject(url, String.class);
-        } catch (Exception e) {
-            throw new NotificationException("Failed to send notification: " + e.getMessage());
+    /**
+     * Sends to a user the caller has already loaded, without looking the
+     * chat up again.
+     */
+    @Override
+    public void sendNotification(User user, String message) {
+        chatIdResolver.remember(user);
+        if (user.getChatId() == null) {
+            throw noChat(user.getId());
         }
+        await(telegramSender.send(user.getChatId(), message));
     }
 
-    @Async
     @Override
     public void sendNewRentalNotification(Rental rental) {
         String message = String.format(
@@ -58,7 +65,7 @@ public class TelegramNotificationService implements NotificationService {
                 rental.getRentalDate(),
                 rental.getReturnDate()
         );
-        sendNotification(rental.getUser().getId(), message);
+        enqueue(rental.getUser(), message);
     }
 
     @Override
@@ -73,17 +80,16 @@ public class TelegramNotificationService implements NotificationService {
                 rental.getReturnDate()
         );
 
-        sendNotification(rental.getUser().getId(), message);
+        enqueue(rental.getUser(), message);
     }
 
     @Override
     public void sendNoOverdueRentalNotification(Rental rental) {
         String message = "No rentals overdue today, thank you!";
 
-        sendNotification(rental.getUser().getId(), message);
+        enqueue(rental.getUser(), message);
     }
 
-    @Async
     @Override
     public void sendReturnRentalNotification(Rental rental) {
         String message = String.format(
@@ -96,22 +102,85 @@ public class TelegramNotificationService implements NotificationService {
                 rental.getReturnDate()
         );
 
-        sendNotification(rental.getUser().getId(), message);
+        enqueue(rental.getUser(), message);
     }
 
-    @Async
     @Override
     public void sendSuccessPaymentNotification(Payment payment) {
         String message = "Payment was successful!";
 
-        sendNotification(payment.getRental().getUser().getId(), message);
+        enqueue(payment.getRental().getUser(), message);
     }
 
-    @Async
     @Override
     public void sendCancelPaymentNotification(Payment payment) {
         String message = "Payment has been cancelled!";
 
-        sendNotification(payment.getRental().getUser().getId(), message);
+        enqueue(payment.getRental().getUser(), message);
+    }
+
+    /**
+     * Resolves the chat and reserves a slot in the rate limiter. The future
+     * completes once Telegram has answered.
+     */
+    public CompletableFuture<Void> sendAsync(Long userId, String message) {
+        String chatId = chatIdResolver.resolve(userId).orElseThrow(() -> noChat(userId));
+        return telegramSender.send(chatId, message);
+    }
+
+    /**
+     * A user the caller has loaded anyway primes the chat id cache, so the
+     * relay can send the row without a lookup. Users without a chat get no
+     * row at all: it could only fail until it was dead-lettered.
+     */
+    private void enqueue(User user, String message) {
+        Optional<String> chatId;
+        if (Hibernate.isInitialized(user)) {
+            chatIdResolver.remember(user);
+            chatId = Optional.ofNullable(user.getChatId());
+        } else {
+            chatId = chatIdResolver.resolve(user.getId());
+        }
+        if (chatId.isEmpty()) {
+            return;
+        }
+        pendingNotificationRepository.save(pending(user.getId(), message, LocalDateTime.now()));
+    }
+
+    /**
+     * Writes a batch of daily digests to the outbox in one go. The digests
+     * were read with their chat ids, which prime the cache for the relay.
+     */
+    void enqueueDigests(List<RentalDigest> digests) {
+        LocalDateTime now = LocalDateTime.now();
+        List<PendingNotification> rows = digests.stream()
+                .map(digest -> {
+                    chatIdResolver.remember(digest.getUserId(), digest.getChatId());
+                    return pending(digest.getUserId(), digest.render(), now);
+                })
+                .toList();
+        pendingNotificationRepository.saveAll(rows);
+    }
+
+    private PendingNotification pending(Long userId, String message, LocalDateTime now) {
+        PendingNotification pending = new PendingNotification();
+        pending.setUserId(userId);
+        pending.setMessage(message);
+        pending.setCreatedAt(now);
+        pending.setNextAttemptAt(now);
+        return pending;
+    }
+
+    private void await(CompletableFuture<Void> result) {
+        try {
+            result.join();
+        } catch (CompletionException e) {
+            throw new NotificationException(
+                    "Failed to send notification: " + e.getCause().getMessage());
+        }
+    }
+
+    private MissingChatIdException noChat(Long userId) {
+        return new MissingChatIdException("User with id: " + userId + " don't have chat id");
     }
 }
@@ -0,0 +1,112 @@
+package mate.academy.notification;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps sendMessage calls under the Telegram limits with two token buckets:
+ * one shared by all chats and one per chat. A message over the limit is not
+ * refused; it gets the next free slot in both buckets and is sent from a
+ * scheduler when that slot comes. How long messages wait is recorded in the
+ * notifications.throttle.wait timer, the backlog shows up as
+ * executor.queued tagged name=telegram.
+ * <p>
+ * A bucket of capacity B refilled at R per second lets through at most
+ * B + R messages in any second, so the defaults (25/s, burst 5) stay
+ * within Telegram's 30 per second. That limit is per bot, while every node
+ * runs its own sender, so the global rate and burst are split evenly over
+ * telegram.rate-limit.nodes, which has to be kept at the number of running
+ * instances; {@link RateLimitNodeCheck} warns when more nodes are alive.
+ * Per-chat buckets stay per node: a chat whose rows are picked up by two
+ * nodes at once can get a 429, which the outbox retries.
+ */
+@Component
+public class ThrottledTelegramSender {
+    private static final Duration IDLE_CHAT_EXPIRY = Duration.ofMinutes(10);
+
+    private final TelegramClient telegramClient;
+    private final TokenBucket globalBucket;
+    private final Cache<String, TokenBucket> chatBuckets;
+    private final double chatPermitsPerSecond;
+    private final int chatBurst;
+    private final ScheduledExecutorService scheduler;
+    private final Timer throttleWait;
+
+    public ThrottledTelegramSender(
+            TelegramClient telegramClient,
+            MeterRegistry meterRegistry,
+            @Value("${telegram.rate-limit.global-per-second:25}") double globalPermitsPerSecond,
+            @Value("${telegram.rate-limit.global-burst:5}") int globalBurst,
+            @Value("${telegram.rate-limit.nodes:1}") int nodes,
+            @Value("${telegram.rate-limit.chat-per-second:1}") double chatPermitsPerSecond,
+            @Value("${telegram.rate-limit.chat-burst:1}") int chatBurst,
+            @Value("${telegram.rate-limit.max-chats:100000}") long maxChats,
+            @Value("${telegram.rate-limit.dispatch-threads:4}") int dispatchThreads
+    ) {
+        if (nodes < 1) {
+            throw new IllegalArgumentException(
+                    "telegram.rate-limit.nodes must be at least 1, got " + nodes);
+        }
+        this.telegramClient = telegramClient;
+        this.globalBucket = new TokenBucket(
+                globalPermitsPerSecond / nodes,
+                Math.max(globalBurst / nodes, 1),
+                System.nanoTime());
+        this.chatBuckets = Caffeine.newBuilder()
+                .maximumSize(maxChats)
+                .expireAfterAccess(IDLE_CHAT_EXPIRY)
+                .build();
+        this.chatPermitsPerSecond = chatPermitsPerSecond;
+        this.chatBurst = chatBurst;
+        this.scheduler = ExecutorServiceMetrics.monitor(
+                meterRegistry,
+                new ScheduledThreadPoolExecutor(
+                        dispatchThreads, new CustomizableThreadFactory("telegram-")),
+                "telegram"
+        );
+        this.throttleWait = meterRegistry.timer("notifications.throttle.wait");
+    }
+
+    /**
+     * Reserves a slot for the message and sends it when the slot comes. The
+     * chat slot is taken first and the global slot no earlier than that;
+     * if the global one is later, the chat bucket is moved along with it.
+     */
+    public CompletableFuture<Void> send(String chatId, String text) {
+        long now = System.nanoTime();
+        TokenBucket chatBucket = chatBuckets.get(
+                chatId, id -> new TokenBucket(chatPermitsPerSecond, chatBurst, now));
+        long slot = globalBucket.reserve(chatBucket.reserve(now));
+        chatBucket.usedAt(slot);
+
+        long delay = Math.max(slot - now, 0);
+        throttleWait.record(delay, TimeUnit.NANOSECONDS);
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        scheduler.schedule(() -> {
+            try {
+                telegramClient.sendMessage(chatId, text);
+                result.complete(null);
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        }, delay, TimeUnit.NANOSECONDS);
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdown();
+    }
+}
@@ -0,0 +1,142 @@
+package mate.academy.notification;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.LongConsumer;
+
+/**
+ * Hashed timing wheel for deadlines keyed by id, with a min-heap for the
+ * ones beyond the current revolution.
+ * <p>
+ * The wheel is a ring of buckets, one per tick, and holds only deadlines
+ * less than one revolution away, so every entry in the bucket a tick visits
+ * is due. Scheduling one of those and firing it cost O(1). Deadlines further
+ * out wait in a heap ordered by tick and move into their bucket once they
+ * come within a revolution, so a rental due in a week costs O(log n) twice
+ * and is not looked at on every revolution in between.
+ * <p>
+ * {@link #schedule} and {@link #cancel} may be called from any thread; the
+ * buckets are only touched by the thread calling {@link #advanceTo}, new
+ * deadlines reach it through a queue. Cancelled entries are dropped when
+ * their bucket is next visited.
+ */
+class TimingWheel {
+    private final long tickMillis;
+    private final long startMillis;
+    private final Queue<Entry>[] buckets;
+    private final Queue<Entry> overflow =
+            new PriorityQueue<>(Comparator.comparingLong(entry -> entry.deadlineTick));
+    private final Queue<Entry> scheduled = new ConcurrentLinkedQueue<>();
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final LongConsumer onExpire;
+    private long currentTick;
+
+    @SuppressWarnings("unchecked")
+    TimingWheel(long tickMillis, int wheelSize, long startMillis, LongConsumer onExpire) {
+        this.tickMillis = tickMillis;
+        this.startMillis = startMillis;
+        this.onExpire = onExpire;
+        this.buckets = new Queue[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new ArrayDeque<>();
+        }
+    }
+
+    /**
+     * Replaces any deadline already scheduled under the same key.
+     */
+    void schedule(long key, long deadlineMillis) {
+        Entry entry = new Entry(key, deadlineMillis);
+        Entry previous = entries.put(key, entry);
+        if (previous != null) {
+            previous.cancelled = true;
+        }
+        scheduled.add(entry);
+    }
+
+    void cancel(long key) {
+        Entry entry = entries.remove(key);
+        if (entry != null) {
+            entry.cancelled = true;
+        }
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * Number of entries waiting beyond the current revolution, cancelled
+     * ones included until their turn comes.
+     */
+    int overflowSize() {
+        return overflow.size();
+    }
+
+    /**
+     * Runs every tick up to the given time and fires what is due. A deadline
+     * fires on the first tick at or after it, so at most one tick late.
+     */
+    void advanceTo(long nowMillis) {
+        long targetTick = (nowMillis - startMillis) / tickMillis;
+        while (currentTick < targetTick) {
+            currentTick++;
+            transferScheduled();
+            promoteOverflow();
+            expire(buckets[(int) (currentTick % buckets.length)]);
+        }
+    }
+
+    private void transferScheduled() {
+        Entry entry;
+        while ((entry = scheduled.poll()) != null) {
+            if (entry.cancelled) {
+                continue;
+            }
+            long elapsed = entry.deadlineMillis - startMillis;
+            entry.deadlineTick = Math.max(
+                    (elapsed + tickMillis - 1) / tickMillis, currentTick);
+            if (entry.deadlineTick < currentTick + buckets.length) {
+                buckets[(int) (entry.deadlineTick % buckets.length)].add(entry);
+            } else {
+                overflow.add(entry);
+            }
+        }
+    }
+
+    private void promoteOverflow() {
+        while (!overflow.isEmpty()
+                && overflow.peek().deadlineTick < currentTick + buckets.length) {
+            Entry entry = overflow.poll();
+            if (!entry.cancelled) {
+                buckets[(int) (entry.deadlineTick % buckets.length)].add(entry);
+            }
+        }
+    }
+
+    private void expire(Queue<Entry> bucket) {
+        Entry entry;
+        while ((entry = bucket.poll()) != null) {
+            if (!entry.cancelled && entries.remove(entry.key, entry)) {
+                onExpire.accept(entry.key);
+            }
+        }
+    }
+
+    private static class Entry {
+        private final long key;
+        private final long deadlineMillis;
+        private long deadlineTick;
+        private volatile boolean cancelled;
+
+        private Entry(long key, long deadlineMillis) {
+            this.key = key;
+            this.deadlineMillis = deadlineMillis;
+        }
+    }
+}
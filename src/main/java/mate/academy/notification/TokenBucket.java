@@ -0,0 +1,46 @@
+package mate.academy.notification;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket in its GCRA form: the whole state is the
+ * theoretical arrival time of the next permit, moved forward with CAS.
+ * Callers reserve a future slot instead of being refused, so a burst is
+ * spread out rather than dropped.
+ */
+class TokenBucket {
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final AtomicLong theoreticalArrival;
+
+    TokenBucket(double permitsPerSecond, int burst, long nowNanos) {
+        intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+        toleranceNanos = intervalNanos * (burst - 1);
+        theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Takes the earliest permit at or after the given time.
+     *
+     * @return the System.nanoTime() value at which the permit may be used
+     */
+    long reserve(long notBeforeNanos) {
+        while (true) {
+            long arrival = theoreticalArrival.get();
+            long slot = Math.max(notBeforeNanos, arrival - toleranceNanos);
+            long nextArrival = Math.max(arrival, slot) + intervalNanos;
+            if (theoreticalArrival.compareAndSet(arrival, nextArrival)) {
+                return slot;
+            }
+        }
+    }
+
+    /**
+     * Accounts for a permit reserved earlier but used later than planned,
+     * so the next one keeps its full distance from the actual use.
+     */
+    void usedAt(long usedAtNanos) {
+        theoreticalArrival.accumulateAndGet(usedAtNanos + intervalNanos, Math::max);
+    }
+}
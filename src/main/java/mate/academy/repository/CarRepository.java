@@ -1,7 +1,29 @@
 package mate.academy.repository;
 
+import java.util.Collection;
+import java.util.Optional;
 import mate.academy.model.Car;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface CarRepository extends JpaRepository<Car, Long> {
+    Page<Car> findAllByInventoryGreaterThan(int inventory, Pageable pageable);
+
+    Page<Car> findAllByIdNotInAndInventoryGreaterThan(
+            Collection<Long> ids, int inventory, Pageable pageable
+    );
+
+    /**
+     * Reads the number of units of a car and locks its row until the end of
+     * the transaction, so admissions of the same car are serialized across
+     * nodes. Taken right before the rental row is inserted: the insert's
+     * foreign key check would otherwise share-lock the car row first and
+     * two bookings could deadlock. A native scalar read, so the count comes
+     * from the locked row even if the car is already in the session.
+     */
+    @Query(value = "SELECT inventory FROM cars WHERE id = :id FOR UPDATE", nativeQuery = true)
+    Optional<Integer> lockInventory(@Param("id") Long id);
 }
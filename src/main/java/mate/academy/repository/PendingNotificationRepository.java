@@ -0,0 +1,47 @@
+package mate.academy.repository;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.List;
+import mate.academy.model.PendingNotification;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface PendingNotificationRepository extends JpaRepository<PendingNotification, Long> {
+    /**
+     * Rows another node has already locked are skipped rather than waited
+     * for (lock timeout -2 is SKIP LOCKED in Hibernate).
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("""
+            SELECT n FROM PendingNotification n
+            WHERE n.status = mate.academy.model.PendingNotification.Status.PENDING
+                AND n.nextAttemptAt <= :now
+            ORDER BY n.nextAttemptAt, n.id
+            """)
+    List<PendingNotification> findDue(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE PendingNotification n
+            SET n.status = :status, n.attempts = :attempts,
+                n.nextAttemptAt = :nextAttemptAt, n.lastError = :lastError
+            WHERE n.id = :id
+            """)
+    int markFailed(
+            @Param("id") Long id,
+            @Param("status") PendingNotification.Status status,
+            @Param("attempts") int attempts,
+            @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+            @Param("lastError") String lastError
+    );
+}
@@ -1,39 +1,69 @@
 package mate.academy.repository;
 
+import jakarta.persistence.LockModeType;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import mate.academy.dto.rental.RentalBookingRow;
+import mate.academy.dto.rental.RentalDetailDto;
+import mate.academy.dto.rental.RentalNotificationRow;
 import mate.academy.model.Rental;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
-public interface RentalRepository extends JpaRepository<Rental, Long> {
+public interface RentalRepository extends JpaRepository<Rental, Long>, RentalRepositoryCustom {
 
-    @EntityGraph(attributePaths = {"car", "user"})
-    List<Rental> findByUserId(Long userId);
-
-    @EntityGraph(attributePaths = {"car", "user"})
-    Optional<Rental> findByIdAndUserId(Long rentalId, Long userId);
-
-    @EntityGraph(attributePaths = {"car", "user"})
-    @Query("SELECT r FROM Rental r WHERE r.actualReturnDate IS NULL")
-    List<Rental> findActiveRentals();
+    @Query("SELECT new mate.academy.dto.rental.RentalDetailDto("
+            + "r.id, r.rentalDate, r.returnDate, r.actualReturnDate, c.model, u.email) "
+            + "FROM Rental r JOIN r.car c JOIN r.user u "
+            + "WHERE r.id = :rentalId AND u.id = :userId")
+    Optional<RentalDetailDto> findDetailByIdAndUserId(
+            @Param("rentalId") Long rentalId, @Param("userId") Long userId
+    );
 
-    @EntityGraph(attributePaths = {"car", "user"})
-    @Query("SELECT r FROM Rental r WHERE r.user.id = :userId AND r.actualReturnDate IS NULL")
-    List<Rental> findActiveRentalsByUserId(@Param("userId") Long userId);
+    @Query("SELECT new mate.academy.dto.rental.RentalBookingRow("
+            + "r.id, c.id, c.inventory, r.rentalDate, r.returnDate) "
+            + "FROM Rental r JOIN r.car c WHERE r.actualReturnDate IS NULL")
+    List<RentalBookingRow> findActiveBookingRows();
 
-    @EntityGraph(attributePaths = {"car", "user"})
-    @Query("SELECT r FROM Rental r WHERE r.user.id = :userId AND r.actualReturnDate IS NOT NULL")
-    List<Rental> findCompletedRentalsByUserId(@Param("userId") Long userId);
+    /**
+     * Active rentals of a car starting before the given moment. Overdue
+     * rentals are included whatever their return date, since they hold their
+     * unit until they are completed. A locking read, so it sees rentals
+     * committed after the transaction's snapshot was taken: the admission
+     * runs it under the car's row lock, after the user and the notification
+     * have already been read and written.
+     */
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("SELECT r FROM Rental r "
+            + "WHERE r.car.id = :carId "
+            + "AND r.actualReturnDate IS NULL AND r.rentalDate < :before")
+    List<Rental> findActiveByCarIdForShare(
+            @Param("carId") Long carId, @Param("before") LocalDateTime before
+    );
 
     @EntityGraph(attributePaths = {"car", "user"})
-    @Query("SELECT r FROM Rental r WHERE r.actualReturnDate IS NOT NULL")
-    List<Rental> findCompletedRentals();
-
-    List<Rental> findByReturnDateBeforeAndActualReturnDateIsNull(LocalDateTime date);
+    @Query("SELECT r FROM Rental r WHERE r.id = :rentalId AND r.actualReturnDate IS NULL")
+    Optional<Rental> findActiveById(@Param("rentalId") Long rentalId);
 
-    List<Rental> findByReturnDateAfterOrActualReturnDateIsNotNull(LocalDateTime date);
+    /**
+     * One page of active rentals of users with a linked chat, ordered by
+     * user and rental and starting after the given pair. Served by the
+     * (actual_return_date, user_id) index from changelog 11.
+     */
+    @Query("SELECT new mate.academy.dto.rental.RentalNotificationRow("
+            + "r.id, u.id, u.chatId, c.brand, c.model, r.rentalDate, r.returnDate) "
+            + "FROM Rental r JOIN r.car c JOIN r.user u "
+            + "WHERE r.actualReturnDate IS NULL AND u.chatId IS NOT NULL "
+            + "AND (r.user.id > :userId OR (r.user.id = :userId AND r.id > :rentalId)) "
+            + "ORDER BY r.user.id, r.id")
+    List<RentalNotificationRow> findActiveNotificationRows(
+            @Param("userId") Long afterUserId,
+            @Param("rentalId") Long afterRentalId,
+            Pageable pageable
+    );
 }
@@ -0,0 +1,10 @@
+package mate.academy.repository;
+
+import java.util.List;
+import mate.academy.dto.rental.RentalCursor;
+import mate.academy.dto.rental.RentalDetailDto;
+import mate.academy.dto.rental.RentalFilterRequestDto;
+
+public interface RentalRepositoryCustom {
+    List<RentalDetailDto> findPage(RentalFilterRequestDto filter, RentalCursor after, int limit);
+}
@@ -0,0 +1,121 @@
+package mate.academy.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import mate.academy.dto.rental.RentalCursor;
+import mate.academy.dto.rental.RentalDetailDto;
+import mate.academy.dto.rental.RentalFilterRequestDto;
+import mate.academy.model.Car;
+import mate.academy.model.Rental;
+import mate.academy.model.User;
+
+@RequiredArgsConstructor
+public class RentalRepositoryCustomImpl implements RentalRepositoryCustom {
+    private final EntityManager entityManager;
+
+    /**
+     * Seeks past the cursor instead of skipping rows with OFFSET, so every
+     * page costs the same no matter how deep the client has scrolled.
+     * Rows are selected straight into {@link RentalDetailDto}, no car or
+     * user entity is loaded into the persistence context.
+     */
+    @Override
+    public List<RentalDetailDto> findPage(
+            RentalFilterRequestDto filter, RentalCursor after, int limit
+    ) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<RentalDetailDto> query = cb.createQuery(RentalDetailDto.class);
+        Root<Rental> rental = query.from(Rental.class);
+        Join<Rental, Car> car = rental.join("car");
+        Join<Rental, User> user = rental.join("user");
+
+        List<Predicate> predicates = new ArrayList<>();
+        addFilterPredicates(cb, rental, car, filter, predicates);
+        if (after != null) {
+            predicates.add(cb.or(
+                    cb.greaterThan(rental.<LocalDateTime>get("rentalDate"), after.rentalDate()),
+                    cb.and(
+                            cb.equal(rental.get("rentalDate"), after.rentalDate()),
+                            cb.greaterThan(rental.<Long>get("id"), after.id())
+                    )
+            ));
+        }
+
+        query.select(cb.construct(
+                        RentalDetailDto.class,
+                        rental.get("id"),
+                        rental.get("rentalDate"),
+                        rental.get("returnDate"),
+                        rental.get("actualReturnDate"),
+                        car.get("model"),
+                        user.get("email")))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.asc(rental.get("rentalDate")), cb.asc(rental.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * Every criterion is independent and optional; the ones that are set are
+     * ANDed together. Equality criteria compare the foreign key columns on
+     * rentals rather than the joined tables, so they line up with the
+     * composite indexes from changelog 05.
+     */
+    private void addFilterPredicates(
+            CriteriaBuilder cb,
+            Root<Rental> rental,
+            Join<Rental, Car> car,
+            RentalFilterRequestDto filter,
+            List<Predicate> predicates
+    ) {
+        Path<LocalDateTime> actualReturnDate = rental.get("actualReturnDate");
+        Path<LocalDateTime> returnDate = rental.get("returnDate");
+        Path<LocalDateTime> rentalDate = rental.get("rentalDate");
+
+        if (filter.getUserId() != null) {
+            predicates.add(cb.equal(rental.get("user").get("id"), filter.getUserId()));
+        }
+        if (filter.getCarId() != null) {
+            predicates.add(cb.equal(rental.get("car").get("id"), filter.getCarId()));
+        }
+        if (filter.getCarType() != null) {
+            predicates.add(cb.equal(car.get("type"), filter.getCarType()));
+        }
+        if (filter.getIsActive() != null) {
+            predicates.add(filter.getIsActive()
+                    ? cb.isNull(actualReturnDate)
+                    : cb.isNotNull(actualReturnDate));
+        }
+        if (filter.getIsOverdue() != null) {
+            LocalDateTime now = LocalDateTime.now();
+            predicates.add(filter.getIsOverdue()
+                    ? cb.and(cb.isNull(actualReturnDate), cb.lessThan(returnDate, now))
+                    : cb.or(
+                            cb.isNotNull(actualReturnDate),
+                            cb.greaterThanOrEqualTo(returnDate, now)));
+        }
+        if (filter.getRentalDateFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(rentalDate, filter.getRentalDateFrom()));
+        }
+        if (filter.getRentalDateTo() != null) {
+            predicates.add(cb.lessThanOrEqualTo(rentalDate, filter.getRentalDateTo()));
+        }
+        if (filter.getReturnDateFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(returnDate, filter.getReturnDateFrom()));
+        }
+        if (filter.getReturnDateTo() != null) {
+            predicates.add(cb.lessThanOrEqualTo(returnDate, filter.getReturnDateTo()));
+        }
+    }
+}
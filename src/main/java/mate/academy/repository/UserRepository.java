@@ -4,6 +4,8 @@ import java.util.Optional;
 import mate.academy.model.User;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByEmail(String email);
@@ -11,4 +13,6 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @EntityGraph(attributePaths = "role")
     Optional<User> findByEmail(String email);
 
+    @Query("SELECT u.chatId FROM User u WHERE u.id = :id")
+    Optional<String> findChatIdById(@Param("id") Long id);
 }
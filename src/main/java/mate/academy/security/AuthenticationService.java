@@ -1,25 +1,103 @@
 package mate.academy.security;
 
+import io.jsonwebtoken.Claims;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import lombok.RequiredArgsConstructor;
 import mate.academy.dto.user.UserLoginRequestDto;
 import mate.academy.dto.user.UserLoginResponseDto;
+import mate.academy.exception.EntityNotFoundException;
+import mate.academy.model.User;
+import mate.academy.repository.UserRepository;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @RequiredArgsConstructor
 @Service
 public class AuthenticationService {
     private final JwtUtil jwtUtil;
     private final AuthenticationManager authenticationManager;
+    private final UserRepository userRepository;
+    private final TokenRevocationRegistry revocationRegistry;
+    private final PrincipalCache principalCache;
+    private final LoginThrottle loginThrottle;
+    private final LoginExecutor loginExecutor;
+    private final RefreshTokenService refreshTokenService;
 
-    public UserLoginResponseDto authenticate(UserLoginRequestDto requestDto) {
-        final Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(requestDto.email(), requestDto.password())
+    /**
+     * Attempts over the failure limit for the email or the client address
+     * are refused before the password is hashed. The hash check itself runs
+     * on the bounded login executor rather than the request thread.
+     */
+    public UserLoginResponseDto authenticate(
+            UserLoginRequestDto requestDto, String clientAddress
+    ) {
+        String email = requestDto.email();
+        loginThrottle.checkAllowed(email, clientAddress);
+
+        Authentication authentication;
+        try {
+            authentication = loginExecutor.execute(() -> authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(email, requestDto.password())
+            ));
+        } catch (AuthenticationException e) {
+            loginThrottle.recordFailure(email, clientAddress);
+            throw e;
+        }
+        loginThrottle.recordSuccess(email);
+
+        return issueTokens((User) authentication.getPrincipal());
+    }
+
+    /**
+     * Trades a refresh token for a new access token and a new refresh token.
+     * No password is checked, so this costs a hash lookup instead of BCrypt.
+     */
+    @Transactional
+    public UserLoginResponseDto refresh(String refreshToken) {
+        return issueTokens(refreshTokenService.consume(refreshToken));
+    }
+
+    /**
+     * Revokes the token the request was made with and the user's refresh
+     * tokens, so the session cannot mint new access tokens. Refresh tokens
+     * are not tied to the access token they were issued with, so every one
+     * of the user's goes. Tokens issued before tokens carried an id cannot
+     * be told apart, so for those every token of the user is revoked.
+     */
+    @Transactional
+    public void logout(String token, User currentUser) {
+        Claims claims = jwtUtil.verify(token);
+        if (claims.getId() == null) {
+            revokeAll(currentUser.getId());
+            return;
+        }
+        LocalDateTime expiresAt = LocalDateTime.ofInstant(
+                claims.getExpiration().toInstant(), ZoneId.systemDefault()
         );
+        revocationRegistry.revokeToken(claims.getId(), currentUser.getId(), expiresAt);
+        refreshTokenService.revokeAll(currentUser.getId());
+    }
 
-        String token = jwtUtil.generateToken(authentication.getName());
-        return new UserLoginResponseDto(token);
+    @Transactional
+    public void revokeAll(Long userId) {
+        User user = userRepository.findById(userId).orElseThrow(
+                () -> new EntityNotFoundException("Can't find user by id: " + userId)
+        );
+        user.setTokenVersion(user.getTokenVersion() + 1);
+        userRepository.save(user);
+        revocationRegistry.revokeBefore(user.getId(), user.getTokenVersion());
+        principalCache.evict(user.getEmail());
+        refreshTokenService.revokeAll(user.getId());
+    }
+
+    private UserLoginResponseDto issueTokens(User user) {
+        return new UserLoginResponseDto(
+                jwtUtil.generateToken(user), refreshTokenService.issue(user)
+        );
     }
 }
@@ -1,13 +1,16 @@
 package mate.academy.security;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import java.util.List;
-import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 import lombok.RequiredArgsConstructor;
+import mate.academy.model.User;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -24,12 +27,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private static final String BEARER_PREFIX = "Bearer ";
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
+    private final PrincipalCache principalCache;
+    private final TokenRevocationRegistry revocationRegistry;
 
-    private final Map<String, List<String>> excludedPathsMap = Map.of(
-            "/auth/", List.of("GET", "POST"),
-            "/health", List.of("GET"),
-            "/cars", List.of("GET")
-    );
+    @Value("${jwt.stateless:false}")
+    private boolean stateless;
+
+    private final PublicPathMatcher publicPathMatcher = new PublicPathMatcher(PublicEndpoint.ALL);
+    private final AtomicLong requestCounter = new AtomicLong();
+
+    @Value("${security.debug-log.sample-rate:100}")
+    private int debugLogSampleRate;
 
     @Override
     protected void doFilterInternal(
@@ -38,19 +46,28 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             FilterChain filterChain
     ) throws ServletException, IOException {
 
-        if (isExcludedPath(request)) {
+        boolean sampled = isSampled();
+        if (publicPathMatcher.matches(request.getMethod(), request.getServletPath())) {
+            if (sampled) {
+                logger.debug("Public request: " + request.getMethod() + " "
+                        + request.getServletPath());
+            }
             filterChain.doFilter(request, response);
             return;
         }
         String token = getToken(request);
 
-        if (token != null && jwtUtil.isValidToken(token)) {
-            String username = jwtUtil.getUsername(token);
-            logger.info("Username from token: " + username);
-
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-            logger.info("User details loaded: " + userDetails);
-            logger.info("User roles: " + userDetails.getAuthorities());
+        if (token != null) {
+            Claims claims = jwtUtil.verify(token);
+            if (revocationRegistry.isTokenRevoked(claims.getId())) {
+                throw new JwtException("Token has been revoked");
+            }
+            UserDetails userDetails = loadPrincipal(claims);
+            if (sampled) {
+                logger.debug("Authenticated " + request.getMethod() + " "
+                        + request.getServletPath() + " as " + userDetails.getUsername()
+                        + " with " + userDetails.getAuthorities());
+            }
 
             Authentication authentication = new UsernamePasswordAuthenticationToken(
                     userDetails, null, userDetails.getAuthorities()
@@ -60,7 +77,35 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
-    private String getToken(HttpServletRequest request) {
+    /**
+     * In stateless mode the principal is rebuilt from the token claims and
+     * the users table is not touched. Otherwise it is loaded through the
+     * principal cache. Either way a token whose version is below the user's
+     * current one is rejected.
+     */
+    private UserDetails loadPrincipal(Claims claims) {
+        int tokenVersion = jwtUtil.getTokenVersion(claims);
+        User principal = stateless ? jwtUtil.toPrincipal(claims) : null;
+        if (principal == null) {
+            principal = (User) principalCache.get(
+                    claims.getSubject(), claims.getIssuedAt(),
+                    userDetailsService::loadUserByUsername
+            );
+            if (tokenVersion < principal.getTokenVersion()) {
+                throw new JwtException("Token has been revoked");
+            }
+        }
+        if (revocationRegistry.isRevoked(principal.getId(), tokenVersion)) {
+            throw new JwtException("Token has been revoked");
+        }
+        return principal;
+    }
+
+    /**
+     * The token of a {@code Bearer} Authorization header, or null when the
+     * header is missing or carries anything else.
+     */
+    public static String getToken(HttpServletRequest request) {
         String bearerToken = request.getHeader(HttpHeaders.AUTHORIZATION);
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith(BEARER_PREFIX)) {
             return bearerToken.substring(BEARER_PREFIX.length());
@@ -68,18 +113,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         return null;
     }
 
-    private boolean isExcludedPath(HttpServletRequest request) {
-        String requestPath = request.getServletPath();
-        String method = request.getMethod();
-
-        boolean isExcluded = excludedPathsMap.entrySet().stream()
-                .anyMatch(entry -> requestPath
-                        .startsWith(entry.getKey()) && entry.getValue().contains(method));
-
-        logger.info(String.format(
-                "Request path: %s, Method: %s, Is excluded: %b",
-                requestPath, method, isExcluded)
-        );
-        return isExcluded;
+    /**
+     * Per-request diagnostics are only written for one request out of
+     * {@code security.debug-log.sample-rate}, and only with debug enabled.
+     */
+    private boolean isSampled() {
+        return logger.isDebugEnabled()
+                && requestCounter.getAndIncrement() % Math.max(debugLogSampleRate, 1) == 0;
     }
 }
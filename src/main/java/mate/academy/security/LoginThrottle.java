@@ -0,0 +1,75 @@
+package mate.academy.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.Locale;
+import mate.academy.exception.TooManyRequestsException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts failed logins per email and per client address over a sliding
+ * window and refuses further attempts once a limit is reached, before any
+ * password hashing is done. Counters live in size-bounded caches that drop
+ * keys idle for a full window, so random emails sprayed by an attacker
+ * cannot grow memory without limit.
+ */
+@Component
+public class LoginThrottle {
+    private static final int BUCKETS = 10;
+    private static final String EMAIL_PREFIX = "email:";
+    private static final String ADDRESS_PREFIX = "ip:";
+
+    private final Cache<String, SlidingWindowCounter> failures;
+    private final long windowMillis;
+    private final int maxFailuresPerEmail;
+    private final int maxFailuresPerAddress;
+
+    public LoginThrottle(
+            @Value("${login.throttle.window-minutes:15}") long windowMinutes,
+            @Value("${login.throttle.max-failures-per-email:5}") int maxFailuresPerEmail,
+            @Value("${login.throttle.max-failures-per-ip:20}") int maxFailuresPerAddress,
+            @Value("${login.throttle.max-keys:100000}") long maxKeys
+    ) {
+        this.windowMillis = Duration.ofMinutes(windowMinutes).toMillis();
+        this.maxFailuresPerEmail = maxFailuresPerEmail;
+        this.maxFailuresPerAddress = maxFailuresPerAddress;
+        this.failures = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(Duration.ofMillis(windowMillis))
+                .build();
+    }
+
+    public void checkAllowed(String email, String address) {
+        long now = System.currentTimeMillis();
+        if (count(emailKey(email), now) >= maxFailuresPerEmail
+                || count(ADDRESS_PREFIX + address, now) >= maxFailuresPerAddress) {
+            throw new TooManyRequestsException(
+                    "Too many failed login attempts, try again later");
+        }
+    }
+
+    public void recordFailure(String email, String address) {
+        long now = System.currentTimeMillis();
+        counter(emailKey(email)).increment(now);
+        counter(ADDRESS_PREFIX + address).increment(now);
+    }
+
+    public void recordSuccess(String email) {
+        failures.invalidate(emailKey(email));
+    }
+
+    private String emailKey(String email) {
+        return EMAIL_PREFIX + email.toLowerCase(Locale.ROOT);
+    }
+
+    private long count(String key, long now) {
+        SlidingWindowCounter counter = failures.getIfPresent(key);
+        return counter == null ? 0 : counter.count(now);
+    }
+
+    private SlidingWindowCounter counter(String key) {
+        return failures.get(key, k -> new SlidingWindowCounter(windowMillis, BUCKETS));
+    }
+}
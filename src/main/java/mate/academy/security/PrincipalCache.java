@@ -0,0 +1,61 @@
+package mate.academy.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import java.util.Date;
+import java.util.function.Function;
+import mate.academy.config.CacheConfig;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Keeps recently authenticated principals so a request carrying a known
+ * token does not have to query the users table. Entries are keyed by email
+ * and the token's issue time; a newly issued token always starts with a
+ * fresh lookup.
+ */
+@Component
+public class PrincipalCache {
+    private final Cache<Object, Object> cache;
+
+    public PrincipalCache(CacheManager cacheManager) {
+        CaffeineCache caffeineCache =
+                (CaffeineCache) cacheManager.getCache(CacheConfig.PRINCIPALS_CACHE);
+        this.cache = caffeineCache.getNativeCache();
+    }
+
+    public UserDetails get(String email, Date issuedAt, Function<String, UserDetails> loader) {
+        PrincipalKey key = new PrincipalKey(email, issuedAt == null ? 0 : issuedAt.getTime());
+        return (UserDetails) cache.get(key, k -> loader.apply(email));
+    }
+
+    /**
+     * Drops every cached principal of the user. Inside a transaction the
+     * eviction waits for the commit, otherwise a request running in between
+     * could cache the old row again.
+     */
+    public void evict(String email) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evictNow(email);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evictNow(email);
+            }
+        });
+    }
+
+    private void evictNow(String email) {
+        cache.asMap().keySet().removeIf(
+                key -> key instanceof PrincipalKey principalKey
+                        && principalKey.email().equals(email));
+    }
+
+    private record PrincipalKey(String email, long issuedAt) {
+    }
+}
@@ -0,0 +1,22 @@
+package mate.academy.security;
+
+import java.util.List;
+import org.springframework.http.HttpMethod;
+
+/**
+ * An endpoint reachable without a token. A pattern is either an exact path
+ * or a path ending in {@code /**}, which also matches the path itself. A
+ * null method stands for any method.
+ */
+public record PublicEndpoint(HttpMethod method, String pattern) {
+    public static final List<PublicEndpoint> ALL = List.of(
+            new PublicEndpoint(HttpMethod.GET, "/cars/**"),
+            new PublicEndpoint(HttpMethod.POST, "/auth/login"),
+            new PublicEndpoint(HttpMethod.POST, "/auth/registration"),
+            new PublicEndpoint(HttpMethod.POST, "/auth/refresh"),
+            new PublicEndpoint(HttpMethod.GET, "/health"),
+            new PublicEndpoint(null, "/error"),
+            new PublicEndpoint(null, "/swagger-ui/**"),
+            new PublicEndpoint(null, "/v3/api-docs/**")
+    );
+}
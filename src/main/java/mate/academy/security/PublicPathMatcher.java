@@ -0,0 +1,114 @@
+package mate.academy.security;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Path segment trie built once from {@link PublicEndpoint#ALL}. Each node
+ * keeps a bit mask of the methods allowed on exactly its path and another
+ * for its whole subtree. Matching walks the request path in place, without
+ * splitting it or creating substrings, so no allocation happens per request.
+ */
+public class PublicPathMatcher {
+    private static final String SUBTREE_SUFFIX = "/**";
+    private static final String[] METHODS = {
+            "GET", "HEAD", "POST", "PUT", "PATCH", "DELETE", "OPTIONS", "TRACE"
+    };
+    private static final int ANY_METHOD = (1 << METHODS.length) - 1;
+
+    private final Node root = new Node("");
+
+    public PublicPathMatcher(List<PublicEndpoint> endpoints) {
+        endpoints.forEach(this::add);
+    }
+
+    public boolean matches(String method, String path) {
+        int methodBit = methodBit(method);
+        if (methodBit == 0 || path == null || path.isEmpty() || path.charAt(0) != '/') {
+            return false;
+        }
+        Node node = root;
+        int start = 1;
+        while (true) {
+            if ((node.subtreeMethods & methodBit) != 0) {
+                return true;
+            }
+            if (start >= path.length()) {
+                return (node.exactMethods & methodBit) != 0;
+            }
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = path.length();
+            }
+            node = node.child(path, start, end - start);
+            if (node == null) {
+                return false;
+            }
+            start = end + 1;
+        }
+    }
+
+    private void add(PublicEndpoint endpoint) {
+        String pattern = endpoint.pattern();
+        boolean subtree = pattern.endsWith(SUBTREE_SUFFIX);
+        String path = subtree
+                ? pattern.substring(0, pattern.length() - SUBTREE_SUFFIX.length())
+                : pattern;
+        int methods = endpoint.method() == null
+                ? ANY_METHOD
+                : methodBit(endpoint.method().name());
+
+        Node node = root;
+        for (String segment : path.split("/")) {
+            if (!segment.isEmpty()) {
+                node = node.childOrCreate(segment);
+            }
+        }
+        if (subtree) {
+            node.subtreeMethods |= methods;
+        } else {
+            node.exactMethods |= methods;
+        }
+    }
+
+    private static int methodBit(String method) {
+        for (int i = 0; i < METHODS.length; i++) {
+            if (METHODS[i].equals(method)) {
+                return 1 << i;
+            }
+        }
+        return 0;
+    }
+
+    private static final class Node {
+        private final String segment;
+        private Node[] children = new Node[0];
+        private int exactMethods;
+        private int subtreeMethods;
+
+        private Node(String segment) {
+            this.segment = segment;
+        }
+
+        private Node child(String path, int offset, int length) {
+            for (Node child : children) {
+                if (child.segment.length() == length
+                        && path.regionMatches(offset, child.segment, 0, length)) {
+                    return child;
+                }
+            }
+            return null;
+        }
+
+        private Node childOrCreate(String segment) {
+            Node existing = child(segment, 0, segment.length());
+            if (existing != null) {
+                return existing;
+            }
+            Node created = new Node(segment);
+            children = Arrays.copyOf(children, children.length + 1);
+            children[children.length - 1] = created;
+            return created;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package mate.academy.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import lombok.RequiredArgsConstructor;
+import mate.academy.model.RefreshToken;
+import mate.academy.model.User;
+import mate.academy.repository.RefreshTokenRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Opaque refresh tokens. Only the SHA-256 hash of a token is stored, so a
+ * leaked table cannot be replayed; lookups go through the unique index on
+ * the hash. Each token is single use: refreshing deletes it and hands out a
+ * new one.
+ */
+@Service
+@RequiredArgsConstructor
+public class RefreshTokenService {
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    @Value("${jwt.refresh-expiration-days:30}")
+    private long refreshExpirationDays;
+
+    @Transactional
+    public String issue(User user) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setTokenHash(hash(token));
+        refreshToken.setUser(user);
+        refreshToken.setExpiresAt(LocalDateTime.now().plusDays(refreshExpirationDays));
+        refreshTokenRepository.save(refreshToken);
+        return token;
+    }
+
+    /**
+     * Consumes the refresh token and returns its owner. The row is removed
+     * with a conditional delete, so of two concurrent refreshes with the
+     * same token only the one whose delete hits the row succeeds.
+     *
+     * @throws BadCredentialsException if the token is unknown, already used
+     *                                 or expired, or its owner was deleted
+     */
+    @Transactional
+    public User consume(String token) {
+        String tokenHash = hash(token);
+        RefreshToken refreshToken = refreshTokenRepository.findByTokenHash(tokenHash)
+                .orElseThrow(() -> new BadCredentialsException("Invalid refresh token"));
+        User user = refreshToken.getUser();
+        if (refreshToken.getExpiresAt().isBefore(LocalDateTime.now()) || user.isDeleted()) {
+            throw new BadCredentialsException("Invalid refresh token");
+        }
+        if (refreshTokenRepository.deleteByTokenHash(tokenHash) == 0) {
+            throw new BadCredentialsException("Invalid refresh token");
+        }
+        return user;
+    }
+
+    @Transactional
+    public void revokeAll(Long userId) {
+        refreshTokenRepository.deleteAllByUserId(userId);
+    }
+
+    @Scheduled(cron = "${jwt.refresh.purge-cron:0 30 * * * *}")
+    @Transactional
+    public void purgeExpired() {
+        refreshTokenRepository.deleteExpired(LocalDateTime.now());
+    }
+
+    private String hash(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package mate.academy.security;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free event counter over a sliding window split into fixed buckets.
+ * Each slot remembers which bucket epoch it currently counts; a slot that
+ * holds an older epoch is reclaimed with a CAS on first use. An increment
+ * racing with a reclaim may be lost, which only makes the counter slightly
+ * lenient and never blocks a caller.
+ */
+final class SlidingWindowCounter {
+    private final long bucketMillis;
+    private final AtomicLongArray epochs;
+    private final AtomicLongArray counts;
+
+    SlidingWindowCounter(long windowMillis, int buckets) {
+        this.bucketMillis = Math.max(windowMillis / buckets, 1);
+        this.epochs = new AtomicLongArray(buckets);
+        this.counts = new AtomicLongArray(buckets);
+    }
+
+    void increment(long nowMillis) {
+        long epoch = nowMillis / bucketMillis;
+        int slot = (int) (epoch % epochs.length());
+        long seen = epochs.get(slot);
+        if (seen != epoch && epochs.compareAndSet(slot, seen, epoch)) {
+            counts.set(slot, 0);
+        }
+        counts.incrementAndGet(slot);
+    }
+
+    long count(long nowMillis) {
+        long epoch = nowMillis / bucketMillis;
+        long oldest = epoch - epochs.length() + 1;
+        long total = 0;
+        for (int slot = 0; slot < epochs.length(); slot++) {
+            long slotEpoch = epochs.get(slot);
+            if (slotEpoch >= oldest && slotEpoch <= epoch) {
+                total += counts.get(slot);
+            }
+        }
+        return total;
+    }
+}
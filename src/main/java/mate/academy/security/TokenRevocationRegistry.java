@@ -0,0 +1,166 @@
+package mate.academy.security;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import jakarta.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import mate.academy.model.RevokedToken;
+import mate.academy.repository.RevokedTokenRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Answers whether a token may still be used without touching the database.
+ * <p>
+ * Whole-user revocation is a minimum accepted token version per user. Only
+ * users whose version was ever bumped (role change, deletion, revoke-all)
+ * have an entry, so the map stays small.
+ * <p>
+ * Single tokens revoked on logout are persisted in {@code revoked_tokens}
+ * and mirrored in memory. A Bloom filter sits in front of the mirror, so
+ * the common "not revoked" answer costs a few hash probes.
+ * <p>
+ * Changes made through another node reach this one only through the
+ * database, so the state is reloaded on a fixed delay. Until then a token
+ * revoked elsewhere is still accepted here.
+ */
+@Component
+@RequiredArgsConstructor
+public class TokenRevocationRegistry {
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    private static final String LOAD_QUERY = """
+            SELECT id, token_version, is_deleted
+            FROM users
+            WHERE token_version > 0 OR is_deleted = true
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final Map<Long, Integer> minimumVersions = new ConcurrentHashMap<>();
+    private final Map<String, LocalDateTime> revokedTokens = new ConcurrentHashMap<>();
+    private volatile BloomFilter<CharSequence> revokedTokenFilter;
+
+    @Value("${jwt.revocation.expected-tokens:100000}")
+    private int expectedTokens;
+
+    @PostConstruct
+    public void init() {
+        loadVersions();
+        loadRevokedTokens();
+        rebuildFilter();
+    }
+
+    /**
+     * Picks up version bumps and logouts committed by other nodes. Neither
+     * is ever undone, so the loaded state is merged into the local one. Only
+     * unexpired access tokens are read, which keeps the query short.
+     */
+    @Scheduled(
+            fixedDelayString = "${jwt.revocation.reload-interval-ms:30000}",
+            initialDelayString = "${jwt.revocation.reload-interval-ms:30000}"
+    )
+    public void reload() {
+        loadVersions();
+        if (loadRevokedTokens()) {
+            rebuildFilter();
+        }
+    }
+
+    public boolean isRevoked(Long userId, int tokenVersion) {
+        Integer minimumVersion = minimumVersions.get(userId);
+        return minimumVersion != null && tokenVersion < minimumVersion;
+    }
+
+    public boolean isTokenRevoked(String tokenId) {
+        return tokenId != null
+                && revokedTokenFilter.mightContain(tokenId)
+                && revokedTokens.containsKey(tokenId);
+    }
+
+    /**
+     * Rejects every token of the user issued with a version below the given
+     * one. Inside a transaction this takes effect after the commit, so a
+     * rolled back change does not lock the user out.
+     */
+    public void revokeBefore(Long userId, int version) {
+        afterCommit(() -> minimumVersions.merge(userId, version, Math::max));
+    }
+
+    public void revokeToken(String tokenId, Long userId, LocalDateTime expiresAt) {
+        RevokedToken revokedToken = new RevokedToken();
+        revokedToken.setTokenId(tokenId);
+        revokedToken.setUserId(userId);
+        revokedToken.setExpiresAt(expiresAt);
+        revokedTokenRepository.save(revokedToken);
+        afterCommit(() -> addRevokedToken(tokenId, expiresAt));
+    }
+
+    /**
+     * An expired token is rejected by its signature check anyway, so its
+     * revocation entry can go. Bloom filters do not support removal, the
+     * filter is rebuilt from what is left.
+     */
+    @Scheduled(cron = "${jwt.revocation.purge-cron:0 0 * * * *}")
+    @Transactional
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        revokedTokenRepository.deleteExpired(now);
+        revokedTokens.values().removeIf(expiresAt -> !expiresAt.isAfter(now));
+        rebuildFilter();
+    }
+
+    private void loadVersions() {
+        jdbcTemplate.query(LOAD_QUERY, rs -> {
+            int minimumVersion = rs.getBoolean("is_deleted")
+                    ? Integer.MAX_VALUE
+                    : rs.getInt("token_version");
+            minimumVersions.merge(rs.getLong("id"), minimumVersion, Math::max);
+        });
+    }
+
+    private boolean loadRevokedTokens() {
+        boolean added = false;
+        for (RevokedToken token
+                : revokedTokenRepository.findAllByExpiresAtAfter(LocalDateTime.now())) {
+            added |= revokedTokens.putIfAbsent(token.getTokenId(), token.getExpiresAt()) == null;
+        }
+        return added;
+    }
+
+    private synchronized void addRevokedToken(String tokenId, LocalDateTime expiresAt) {
+        revokedTokens.put(tokenId, expiresAt);
+        revokedTokenFilter.put(tokenId);
+    }
+
+    private synchronized void rebuildFilter() {
+        BloomFilter<CharSequence> filter = BloomFilter.create(
+                Funnels.stringFunnel(StandardCharsets.UTF_8),
+                Math.max(expectedTokens, revokedTokens.size() * 2),
+                FALSE_POSITIVE_RATE
+        );
+        revokedTokens.keySet().forEach(filter::put);
+        revokedTokenFilter = filter;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
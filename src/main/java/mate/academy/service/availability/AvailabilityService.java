@@ -0,0 +1,28 @@
+package mate.academy.service.availability;
+
+import java.time.LocalDate;
+import java.util.Set;
+import mate.academy.model.Car;
+import mate.academy.model.Rental;
+
+public interface AvailabilityService {
+    /**
+     * Admits a rental that is about to be inserted against the active
+     * rentals stored for its car. Locks the car's row until the end of the
+     * transaction, so the caller should insert the rental right after and
+     * do any other work before calling this.
+     */
+    void reserve(Rental rental);
+
+    /**
+     * Adds a saved rental to this node's schedule once its transaction
+     * commits.
+     */
+    void track(Rental rental);
+
+    void release(Rental rental);
+
+    void updateCapacity(Car car);
+
+    Set<Long> findFullyBookedCarIds(LocalDate from, LocalDate to);
+}
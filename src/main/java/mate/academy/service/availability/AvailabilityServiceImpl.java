@@ -0,0 +1,169 @@
+package mate.academy.service.availability;
+
+import jakarta.annotation.PostConstruct;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import mate.academy.dto.rental.RentalBookingRow;
+import mate.academy.exception.EntityNotFoundException;
+import mate.academy.exception.InvalidDateRangeException;
+import mate.academy.model.Car;
+import mate.academy.model.Rental;
+import mate.academy.repository.CarRepository;
+import mate.academy.repository.RentalRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Keeps an in-memory schedule of the active bookings of every car for the
+ * read paths. Admission is decided by the database: {@link #reserve} locks
+ * the car's row and sweeps the active rentals stored for the car, so nodes
+ * whose schedules have not seen each other's bookings cannot oversell it.
+ * Only the sweep and the insert that follows it run under the lock.
+ * <p>
+ * The schedules only learn this node's bookings as they happen. Bookings
+ * and completions on other nodes show up when the schedules are rebuilt
+ * from the database every availability.reload-interval-ms, so the list
+ * of available cars can be that much out of date; admission is not.
+ */
+@Service
+@RequiredArgsConstructor
+public class AvailabilityServiceImpl implements AvailabilityService {
+    private final RentalRepository rentalRepository;
+    private final CarRepository carRepository;
+    private volatile Map<Long, CarSchedule> schedules = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        schedules = load();
+    }
+
+    /**
+     * Replaces the schedules with ones built from the active rentals in the
+     * database. A local booking committed while the rows are read may be
+     * missing until the next reload.
+     */
+    @Scheduled(
+            fixedDelayString = "${availability.reload-interval-ms:10000}",
+            initialDelayString = "${availability.reload-interval-ms:10000}"
+    )
+    public void reload() {
+        schedules = load();
+    }
+
+    @Override
+    public void reserve(Rental rental) {
+        checkWindow(rental.getRentalDate(), rental.getReturnDate());
+        Long carId = rental.getCar().getId();
+        int capacity = carRepository.lockInventory(carId).orElseThrow(
+                () -> new EntityNotFoundException("Can't find car with id: " + carId)
+        );
+        List<Booking> stored = rentalRepository.findActiveByCarIdForShare(
+                        carId, rental.getReturnDate()
+                ).stream()
+                .map(Booking::of)
+                .sorted(CarSchedule.BY_START)
+                .toList();
+
+        if (CarSchedule.maxOccupied(stored, rental.getRentalDate(), rental.getReturnDate(),
+                LocalDateTime.now()) >= capacity) {
+            throw new IllegalStateException("Car is not available for rental");
+        }
+    }
+
+    @Override
+    public void track(Rental rental) {
+        Booking booking = Booking.of(rental);
+        int capacity = rental.getCar().getInventory();
+        afterCommit(() -> {
+            CarSchedule schedule = schedules.computeIfAbsent(
+                    rental.getCar().getId(), id -> new CarSchedule(capacity));
+            schedule.resize(capacity);
+            schedule.add(booking);
+        });
+    }
+
+    @Override
+    public void release(Rental rental) {
+        Booking booking = Booking.of(rental);
+        CarSchedule schedule = schedules.get(rental.getCar().getId());
+
+        if (schedule != null && schedule.remove(booking)) {
+            onRollback(() -> schedule.add(booking));
+        }
+    }
+
+    @Override
+    public void updateCapacity(Car car) {
+        afterCommit(() -> {
+            CarSchedule schedule = schedules.get(car.getId());
+            if (schedule != null) {
+                schedule.resize(car.getInventory());
+            }
+        });
+    }
+
+    @Override
+    public Set<Long> findFullyBookedCarIds(LocalDate from, LocalDate to) {
+        if (from == null || to == null || to.isBefore(from)) {
+            throw new InvalidDateRangeException("End date must not be before start date");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Set<Long> carIds = new HashSet<>();
+        schedules.forEach((carId, schedule) -> {
+            if (schedule.isFullyBooked(from, to, now)) {
+                carIds.add(carId);
+            }
+        });
+        return carIds;
+    }
+
+    private Map<Long, CarSchedule> load() {
+        Map<Long, CarSchedule> loaded = new ConcurrentHashMap<>();
+        for (RentalBookingRow row : rentalRepository.findActiveBookingRows()) {
+            loaded.computeIfAbsent(row.getCarId(), id -> new CarSchedule(row.getCarInventory()))
+                    .add(Booking.of(row));
+        }
+        return loaded;
+    }
+
+    private void checkWindow(LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new InvalidDateRangeException("Return date must be after rental date");
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private void onRollback(Runnable compensation) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    compensation.run();
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,23 @@
+package mate.academy.service.availability;
+
+import java.time.LocalDateTime;
+import mate.academy.dto.rental.RentalBookingRow;
+import mate.academy.model.Rental;
+
+record Booking(Long rentalId, LocalDateTime start, LocalDateTime end) {
+    static Booking of(Rental rental) {
+        return new Booking(rental.getId(), rental.getRentalDate(), rental.getReturnDate());
+    }
+
+    static Booking of(RentalBookingRow row) {
+        return new Booking(row.getRentalId(), row.getRentalDate(), row.getReturnDate());
+    }
+
+    /**
+     * A rental that is past its return date but still not returned keeps
+     * its unit busy until somebody completes it.
+     */
+    LocalDateTime effectiveEnd(LocalDateTime now) {
+        return end.isAfter(now) ? end : LocalDateTime.MAX;
+    }
+}
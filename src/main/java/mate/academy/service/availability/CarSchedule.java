@@ -0,0 +1,140 @@
+package mate.academy.service.availability;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import org.roaringbitmap.RoaringBitmap;
+
+/**
+ * Bookings of one car kept as a list sorted by start date. Only active
+ * rentals live here, so a scan stays short even for popular cars.
+ * Alongside the list the schedule keeps a bitmap of epoch days on which
+ * every unit of the car is booked at some point of the day.
+ */
+class CarSchedule {
+    static final Comparator<Booking> BY_START = Comparator.comparing(Booking::start);
+    private static final LocalDateTime SCHEDULED = LocalDateTime.MIN;
+
+    private final List<Booking> bookings = new ArrayList<>();
+    private final RoaringBitmap fullyBookedDays = new RoaringBitmap();
+    private int capacity;
+
+    CarSchedule(int capacity) {
+        this.capacity = capacity;
+    }
+
+    synchronized void add(Booking booking) {
+        int index = 0;
+        while (index < bookings.size()
+                && BY_START.compare(bookings.get(index), booking) <= 0) {
+            index++;
+        }
+        bookings.add(index, booking);
+        refreshDays(booking);
+    }
+
+    synchronized boolean remove(Booking booking) {
+        boolean removed = bookings.remove(booking);
+        if (removed) {
+            refreshDays(booking);
+        }
+        return removed;
+    }
+
+    /**
+     * Changes the number of units of the car and recomputes every fully
+     * booked day of the bookings held here.
+     */
+    synchronized void resize(int capacity) {
+        if (this.capacity == capacity) {
+            return;
+        }
+        this.capacity = capacity;
+        fullyBookedDays.clear();
+        for (Booking booking : bookings) {
+            refreshDays(booking);
+        }
+    }
+
+    /**
+     * Tells whether every unit is booked at some moment of the given days.
+     * The bitmap only knows scheduled return dates, so while an overdue
+     * rental holds its unit the answer comes from the same sweep that
+     * admits bookings.
+     */
+    synchronized boolean isFullyBooked(LocalDate from, LocalDate to, LocalDateTime now) {
+        if (fullyBookedDays.intersects(from.toEpochDay(), to.toEpochDay() + 1)) {
+            return true;
+        }
+        if (bookings.stream().allMatch(booking -> booking.end().isAfter(now))) {
+            return false;
+        }
+        return maxOccupied(from.atStartOfDay(), to.plusDays(1).atStartOfDay(), now) >= capacity;
+    }
+
+    /**
+     * Returns the highest number of units booked at the same moment
+     * anywhere inside [from, to).
+     */
+    synchronized int maxOccupied(LocalDateTime from, LocalDateTime to, LocalDateTime now) {
+        return maxOccupied(bookings, from, to, now);
+    }
+
+    /**
+     * Same sweep over any list of bookings sorted by start date.
+     */
+    static int maxOccupied(
+            List<Booking> bookings, LocalDateTime from, LocalDateTime to, LocalDateTime now
+    ) {
+        List<LocalDateTime> starts = new ArrayList<>();
+        List<LocalDateTime> ends = new ArrayList<>();
+        for (Booking booking : bookings) {
+            if (!booking.start().isBefore(to)) {
+                break;
+            }
+            LocalDateTime end = booking.effectiveEnd(now);
+            if (end.isAfter(from)) {
+                starts.add(booking.start().isAfter(from) ? booking.start() : from);
+                ends.add(end.isBefore(to) ? end : to);
+            }
+        }
+        LocalDateTime[] sortedEnds = ends.toArray(new LocalDateTime[0]);
+        Arrays.sort(sortedEnds);
+
+        int occupied = 0;
+        int max = 0;
+        int released = 0;
+        for (LocalDateTime start : starts) {
+            while (released < sortedEnds.length && !sortedEnds[released].isAfter(start)) {
+                released++;
+                occupied--;
+            }
+            occupied++;
+            max = Math.max(max, occupied);
+        }
+        return max;
+    }
+
+    /**
+     * Recomputes the days touched by a booking from scheduled return dates,
+     * as seen before any of them has passed. Overdue rentals are added on
+     * top by {@link #isFullyBooked}.
+     */
+    private void refreshDays(Booking booking) {
+        LocalDate lastDay = booking.end().toLocalDate();
+        for (LocalDate day = booking.start().toLocalDate();
+                !day.isAfter(lastDay); day = day.plusDays(1)) {
+            int occupied = maxOccupied(
+                    day.atStartOfDay(), day.plusDays(1).atStartOfDay(), SCHEDULED
+            );
+            if (occupied >= capacity) {
+                fullyBookedDays.add((int) day.toEpochDay());
+            } else {
+                fullyBookedDays.remove((int) day.toEpochDay());
+            }
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package mate.academy.service.car;
 
+import java.time.LocalDate;
 import mate.academy.dto.car.CarDto;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -12,6 +13,8 @@ public interface CarService {
 
     CarDto getById(Long id);
 
+    Page<CarDto> findAvailable(LocalDate from, LocalDate to, Pageable pageable);
+
     CarDto update(CarDto carDto, Long id);
 
     void deleteById(Long id);
@@ -1,11 +1,19 @@
 package mate.academy.service.car;
 
+import java.time.LocalDate;
+import java.util.Set;
 import lombok.RequiredArgsConstructor;
+import mate.academy.config.CacheConfig;
 import mate.academy.dto.car.CarDto;
 import mate.academy.exception.EntityNotFoundException;
 import mate.academy.mapper.CarMapper;
 import mate.academy.model.Car;
 import mate.academy.repository.CarRepository;
+import mate.academy.service.availability.AvailabilityService;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -16,41 +24,63 @@ import org.springframework.transaction.annotation.Transactional;
 public class CarServiceImpl implements CarService {
     private final CarRepository carRepository;
     private final CarMapper carMapper;
+    private final AvailabilityService availabilityService;
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.CAR_PAGES_CACHE, allEntries = true)
     public CarDto save(CarDto carDto) {
         Car car = carMapper.toModel(carDto);
         return carMapper.toDto(carRepository.save(car));
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.CAR_PAGES_CACHE, key = "#pageable")
     public Page<CarDto> findAll(Pageable pageable) {
         Page<Car> cars = carRepository.findAll(pageable);
         return cars.map(carMapper::toDto);
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.CARS_CACHE, key = "#id")
     public CarDto getById(Long id) {
-        
         Car car = carRepository.findById(id).orElseThrow(
                 () -> new EntityNotFoundException("Can't get car by id: " + id)
         );
         return carMapper.toDto(car);
     }
 
+    @Override
+    public Page<CarDto> findAvailable(LocalDate from, LocalDate to, Pageable pageable) {
+        Set<Long> fullyBooked = availabilityService.findFullyBookedCarIds(from, to);
+        Page<Car> cars = fullyBooked.isEmpty()
+                ? carRepository.findAllByInventoryGreaterThan(0, pageable)
+                : carRepository.findAllByIdNotInAndInventoryGreaterThan(fullyBooked, 0, pageable);
+        return cars.map(carMapper::toDto);
+    }
+
     @Override
     @Transactional
+    @Caching(
+            put = @CachePut(cacheNames = CacheConfig.CARS_CACHE, key = "#id"),
+            evict = @CacheEvict(cacheNames = CacheConfig.CAR_PAGES_CACHE, allEntries = true)
+    )
     public CarDto update(CarDto carDto, Long id) {
         Car existingCar = carRepository.findById(id).orElseThrow(
                 () -> new EntityNotFoundException("Can't get car by id: " + id)
         );
         carMapper.updateCarFromDto(carDto, existingCar);
-        return carMapper.toDto(carRepository.save(existingCar));
+        Car saved = carRepository.save(existingCar);
+        availabilityService.updateCapacity(saved);
+        return carMapper.toDto(saved);
     }
 
     @Override
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.CARS_CACHE, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.CAR_PAGES_CACHE, allEntries = true)
+    })
     public void deleteById(Long id) {
         if (id == null) {
             throw new IllegalArgumentException("Id must not be null!");
@@ -0,0 +1,22 @@
+package mate.academy.service.lease;
+
+import java.time.Duration;
+
+public interface JobLeaseService {
+    /**
+     * Runs the job only if this node holds the named lease, so across the
+     * cluster one node runs it and the others skip. The lease is renewed
+     * while the job runs and kept for at least {@code minHold} after it was
+     * taken, so a node whose clock fires a little later does not run the
+     * same job again.
+     *
+     * @return false if another node holds the lease and the job was skipped
+     */
+    boolean runExclusively(String name, Duration minHold, Runnable job);
+
+    /**
+     * Number of nodes that announced themselves in job_leases within the
+     * lease TTL, this one included.
+     */
+    int countLiveNodes();
+}
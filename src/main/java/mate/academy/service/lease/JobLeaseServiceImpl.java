@@ -0,0 +1,157 @@
+package mate.academy.service.lease;
+
+import jakarta.annotation.PreDestroy;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Leases live in job_leases, one row per name. Every statement is a single
+ * conditional write and all times come from the database clock, so nodes
+ * with drifting clocks still agree on who holds a lease. A holder that dies
+ * stops its heartbeat and the lease lapses after the TTL.
+ * <p>
+ * Every node also keeps a row of its own, named node: plus a random id and
+ * renewed every lease.node-heartbeat-ms, so the live nodes can be counted.
+ */
+@Service
+public class JobLeaseServiceImpl implements JobLeaseService {
+    private static final String ACQUIRE = """
+            UPDATE job_leases
+            SET owner = ?, acquired_at = CURRENT_TIMESTAMP, heartbeat_at = CURRENT_TIMESTAMP,
+                expires_at = TIMESTAMPADD(SECOND, ?, CURRENT_TIMESTAMP)
+            WHERE name = ? AND (expires_at <= CURRENT_TIMESTAMP OR owner = ?)
+            """;
+    private static final String INSERT = """
+            INSERT INTO job_leases (name, owner, acquired_at, heartbeat_at, expires_at)
+            VALUES (?, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP,
+                TIMESTAMPADD(SECOND, ?, CURRENT_TIMESTAMP))
+            """;
+    private static final String HEARTBEAT = """
+            UPDATE job_leases
+            SET heartbeat_at = CURRENT_TIMESTAMP,
+                expires_at = TIMESTAMPADD(SECOND, ?, CURRENT_TIMESTAMP)
+            WHERE name = ? AND owner = ?
+            """;
+    private static final String RELEASE = """
+            UPDATE job_leases
+            SET expires_at = GREATEST(CURRENT_TIMESTAMP, TIMESTAMPADD(SECOND, ?, acquired_at))
+            WHERE name = ? AND owner = ?
+            """;
+    private static final String ANNOUNCE = """
+            INSERT INTO job_leases (name, owner, acquired_at, heartbeat_at, expires_at)
+            VALUES (?, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP,
+                TIMESTAMPADD(SECOND, ?, CURRENT_TIMESTAMP))
+            ON DUPLICATE KEY UPDATE heartbeat_at = CURRENT_TIMESTAMP,
+                expires_at = TIMESTAMPADD(SECOND, ?, CURRENT_TIMESTAMP)
+            """;
+    private static final String COUNT_NODES = """
+            SELECT COUNT(*) FROM job_leases
+            WHERE name LIKE 'node:%' AND expires_at > CURRENT_TIMESTAMP
+            """;
+    private static final String LEAVE = "DELETE FROM job_leases WHERE name = ?";
+    private static final String PURGE = """
+            DELETE FROM job_leases
+            WHERE expires_at < TIMESTAMPADD(DAY, -1, CURRENT_TIMESTAMP)
+            """;
+
+    private final Logger logger = LoggerFactory.getLogger(JobLeaseServiceImpl.class);
+    private final JdbcTemplate jdbcTemplate;
+    private final long ttlSeconds;
+    private final String owner;
+    private final String nodeName;
+    private final ScheduledExecutorService heartbeats;
+
+    public JobLeaseServiceImpl(
+            JdbcTemplate jdbcTemplate,
+            @Value("${lease.ttl-seconds:60}") long ttlSeconds
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ttlSeconds = ttlSeconds;
+        String nodeId = UUID.randomUUID().toString();
+        this.owner = ManagementFactory.getRuntimeMXBean().getName() + "/" + nodeId;
+        this.nodeName = "node:" + nodeId;
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(
+                new CustomizableThreadFactory("lease-"));
+    }
+
+    @Override
+    public boolean runExclusively(String name, Duration minHold, Runnable job) {
+        if (!acquire(name)) {
+            return false;
+        }
+        long heartbeatSeconds = Math.max(ttlSeconds / 3, 1);
+        ScheduledFuture<?> heartbeat = heartbeats.scheduleAtFixedRate(
+                () -> renew(name), heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+        try {
+            job.run();
+            return true;
+        } finally {
+            heartbeat.cancel(false);
+            jdbcTemplate.update(RELEASE, minHold.toSeconds(), name, owner);
+        }
+    }
+
+    @Override
+    public int countLiveNodes() {
+        Integer count = jdbcTemplate.queryForObject(COUNT_NODES, Integer.class);
+        return count == null ? 0 : count;
+    }
+
+    @Scheduled(fixedDelayString = "${lease.node-heartbeat-ms:20000}")
+    public void announce() {
+        try {
+            jdbcTemplate.update(ANNOUNCE, nodeName, owner, ttlSeconds, ttlSeconds);
+        } catch (RuntimeException e) {
+            logger.warn("Node heartbeat failed: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "${lease.purge-cron:0 15 3 * * *}")
+    public void purgeExpired() {
+        jdbcTemplate.update(PURGE);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeats.shutdown();
+        try {
+            jdbcTemplate.update(LEAVE, nodeName);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to remove node {}: {}", nodeName, e.getMessage());
+        }
+    }
+
+    private boolean acquire(String name) {
+        if (jdbcTemplate.update(ACQUIRE, owner, ttlSeconds, name, owner) == 1) {
+            return true;
+        }
+        try {
+            return jdbcTemplate.update(INSERT, name, owner, ttlSeconds) == 1;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    private void renew(String name) {
+        try {
+            if (jdbcTemplate.update(HEARTBEAT, ttlSeconds, name, owner) == 0) {
+                logger.warn("Lease {} was lost while its job was running", name);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Lease {} heartbeat failed: {}", name, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package mate.academy.service.rental;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import mate.academy.dto.rental.RentalExportFormat;
+
+public interface RentalExportService {
+    void export(RentalExportFormat format, OutputStream out) throws IOException;
+}
@@ -0,0 +1,145 @@
+package mate.academy.service.rental;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import lombok.RequiredArgsConstructor;
+import mate.academy.dto.rental.RentalExportFormat;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+/**
+ * Streams rentals straight from a forward-only JDBC cursor to the response,
+ * one row at a time and without any managed entities, so memory use does
+ * not depend on how many rentals there are.
+ */
+@Service
+@RequiredArgsConstructor
+public class RentalExportServiceImpl implements RentalExportService {
+    private static final String EXPORT_QUERY = """
+            SELECT r.id, r.rental_date, r.return_date, r.actual_return_date,
+                   r.car_id, c.brand, c.model, r.user_id, u.email
+            FROM rentals r
+            JOIN cars c ON c.id = r.car_id
+            JOIN users u ON u.id = r.user_id
+            ORDER BY r.id
+            """;
+    private static final String CSV_HEADER = "id,rental_date,return_date,actual_return_date,"
+            + "car_id,car_brand,car_model,user_id,user_email";
+    /**
+     * MySQL Connector/J only streams rows one by one for this fetch size,
+     * any other value buffers the whole result set in memory.
+     */
+    private static final int STREAMING_FETCH_SIZE = Integer.MIN_VALUE;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void export(RentalExportFormat format, OutputStream out) throws IOException {
+        if (format == RentalExportFormat.CSV) {
+            exportCsv(out);
+        } else {
+            exportNdjson(out);
+        }
+    }
+
+    private void exportNdjson(OutputStream out) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.setRootValueSeparator(null);
+            streamRows(rs -> {
+                generator.writeStartObject();
+                generator.writeNumberField("id", rs.getLong("id"));
+                writeDate(generator, "rentalDate", date(rs, "rental_date"));
+                writeDate(generator, "returnDate", date(rs, "return_date"));
+                writeDate(generator, "actualReturnDate", date(rs, "actual_return_date"));
+                generator.writeNumberField("carId", rs.getLong("car_id"));
+                generator.writeStringField("carBrand", rs.getString("brand"));
+                generator.writeStringField("carModel", rs.getString("model"));
+                generator.writeNumberField("userId", rs.getLong("user_id"));
+                generator.writeStringField("userEmail", rs.getString("email"));
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            });
+        }
+    }
+
+    private void exportCsv(OutputStream out) throws IOException {
+        try (Writer writer = new BufferedWriter(
+                new OutputStreamWriter(out, StandardCharsets.UTF_8))) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+            streamRows(rs -> {
+                writer.write(String.join(",",
+                        String.valueOf(rs.getLong("id")),
+                        csv(date(rs, "rental_date")),
+                        csv(date(rs, "return_date")),
+                        csv(date(rs, "actual_return_date")),
+                        String.valueOf(rs.getLong("car_id")),
+                        csv(rs.getString("brand")),
+                        csv(rs.getString("model")),
+                        String.valueOf(rs.getLong("user_id")),
+                        csv(rs.getString("email"))
+                ));
+                writer.write('\n');
+            });
+        }
+    }
+
+    private void streamRows(RowWriter rowWriter) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    EXPORT_QUERY, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY
+            );
+            statement.setFetchSize(STREAMING_FETCH_SIZE);
+            return statement;
+        }, (RowCallbackHandler) rs -> {
+            try {
+                rowWriter.write(rs);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to write rental export", e);
+            }
+        });
+    }
+
+    private LocalDateTime date(ResultSet rs, String column) throws SQLException {
+        return rs.getObject(column, LocalDateTime.class);
+    }
+
+    private void writeDate(JsonGenerator generator, String field, LocalDateTime value)
+            throws IOException {
+        if (value == null) {
+            generator.writeNullField(field);
+        } else {
+            generator.writeStringField(field, value.toString());
+        }
+    }
+
+    private String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.contains(",") || text.contains("\"")
+                || text.contains("\n") || text.contains("\r")) {
+            return "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+        return text;
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(ResultSet rs) throws SQLException, IOException;
+    }
+}
@@ -1,6 +1,6 @@
 package mate.academy.service.rental;
 
-import java.util.List;
+import mate.academy.dto.CursorPageResponse;
 import mate.academy.dto.rental.RentalDetailDto;
 import mate.academy.dto.rental.RentalFilterRequestDto;
 import mate.academy.dto.rental.RentalRequestDto;
@@ -9,7 +9,9 @@ import mate.academy.model.User;
 public interface RentalService {
     RentalDetailDto createRental(RentalRequestDto requestDto, String email);
 
-    List<RentalDetailDto> getRentals(RentalFilterRequestDto filter, User currentUser);
+    CursorPageResponse<RentalDetailDto> getRentals(
+            RentalFilterRequestDto filter, User currentUser, String after, int limit
+    );
 
     void completeRental(Long rentalId);
 
@@ -3,6 +3,8 @@ package mate.academy.service.rental;
 import java.time.LocalDateTime;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
+import mate.academy.dto.CursorPageResponse;
+import mate.academy.dto.rental.RentalCursor;
 import mate.academy.dto.rental.RentalDetailDto;
 import mate.academy.dto.rental.RentalFilterRequestDto;
 import mate.academy.dto.rental.RentalRequestDto;
@@ -12,21 +14,32 @@ import mate.academy.model.Car;
 import mate.academy.model.Rental;
 import mate.academy.model.User;
 import mate.academy.notification.NotificationService;
+import mate.academy.notification.OverdueRentalWatcher;
 import mate.academy.repository.CarRepository;
 import mate.academy.repository.RentalRepository;
 import mate.academy.repository.UserRepository;
+import mate.academy.service.availability.AvailabilityService;
+import org.springframework.beans.BeanUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
 public class RentalServiceImpl implements RentalService {
+    private static final int MAX_PAGE_SIZE = 100;
     private final RentalRepository rentalRepository;
     private final RentalMapper rentalMapper;
     private final UserRepository userRepository;
     private final CarRepository carRepository;
     private final NotificationService notificationService;
-
+    private final AvailabilityService availabilityService;
+    private final OverdueRentalWatcher overdueRentalWatcher;
+
+    /**
+     * Everything except the insert happens before the car is locked, so
+     * bookings of the same car only wait for each other's capacity check
+     * and insert.
+     */
     @Override
     @Transactional
     public RentalDetailDto createRental(RentalRequestDto requestDto, String email) {
@@ -36,13 +49,6 @@ public class RentalServiceImpl implements RentalService {
                 )
         );
 
-        if (car.getInventory() <= 0) {
-            throw new IllegalStateException("Car is not available for rental");
-        }
-
-        car.setInventory(car.getInventory() - 1);
-        carRepository.save(car);
-
         User user = userRepository.findByEmail(email).orElseThrow(
                 () -> new EntityNotFoundException("Can't find user with email: " + email)
         );
@@ -53,27 +59,36 @@ public class RentalServiceImpl implements RentalService {
         rental.setCar(car);
         rental.setUser(user);
 
+        notificationService.sendNewRentalNotification(rental);
+
+        availabilityService.reserve(rental);
         Rental saved = rentalRepository.save(rental);
 
-        notificationService.sendNewRentalNotification(saved);
+        availabilityService.track(saved);
+        overdueRentalWatcher.watch(saved);
 
         return rentalMapper.toDto(saved);
     }
 
     @Override
-    @Transactional
-    public List<RentalDetailDto> getRentals(RentalFilterRequestDto filter, User currentUser) {
-        List<Rental> rentals;
+    public CursorPageResponse<RentalDetailDto> getRentals(
+            RentalFilterRequestDto filter, User currentUser, String after, int limit
+    ) {
+        RentalCursor cursor = after == null ? null : RentalCursor.decode(after);
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        List<RentalDetailDto> rentals;
 
         if (currentUser.isAdmin()) {
-            rentals = getRentalsForManager(filter);
+            rentals = getRentalsForManager(filter, cursor, pageSize + 1);
         } else {
-            rentals = getRentalsForCustomer(filter, currentUser);
+            rentals = getRentalsForCustomer(filter, currentUser, cursor, pageSize + 1);
         }
 
-        return rentals.stream()
-                .map(rentalMapper::toDto)
-                .toList();
+        boolean hasNext = rentals.size() > pageSize;
+        List<RentalDetailDto> page = hasNext ? rentals.subList(0, pageSize) : rentals;
+        String nextCursor = hasNext ? RentalCursor.of(page.get(pageSize - 1)).encode() : null;
+
+        return new CursorPageResponse<>(page, nextCursor);
     }
 
     @Override
@@ -92,47 +107,29 @@ public class RentalServiceImpl implements RentalService {
         rental.setActualReturnDate(LocalDateTime.now());
         rentalRepository.save(rental);
 
-        Car car = rental.getCar();
-        car.setInventory(car.getInventory() + 1);
-
-        carRepository.save(car);
+        availabilityService.release(rental);
+        overdueRentalWatcher.unwatch(rentalId);
     }
 
     @Override
-    @Transactional
     public RentalDetailDto getRentalById(Long rentalId, Long userId) {
-        Rental rental = rentalRepository.findByIdAndUserId(rentalId, userId).orElseThrow(
+        return rentalRepository.findDetailByIdAndUserId(rentalId, userId).orElseThrow(
                 () -> new EntityNotFoundException("Can't find rental with id: " + rentalId)
         );
-
-        return rentalMapper.toDto(rental);
     }
 
-    public List<Rental> getRentalsForManager(RentalFilterRequestDto filter) {
-        if (filter.getUserId() != null && filter.getIsActive() != null) {
-            if (filter.getIsActive()) {
-                return rentalRepository.findActiveRentalsByUserId(filter.getUserId());
-            } else {
-                return rentalRepository.findCompletedRentalsByUserId(filter.getUserId());
-            }
-        } else if (filter.getUserId() != null) {
-            return rentalRepository.findByUserId(filter.getUserId());
-        } else if (filter.getIsActive() != null) {
-            return filter.getIsActive()
-                    ? rentalRepository.findActiveRentals()
-                    : rentalRepository.findCompletedRentals();
-        } else {
-            return rentalRepository.findAll();
-        }
+    public List<RentalDetailDto> getRentalsForManager(
+            RentalFilterRequestDto filter, RentalCursor cursor, int limit
+    ) {
+        return rentalRepository.findPage(filter, cursor, limit);
     }
 
-    private List<Rental> getRentalsForCustomer(RentalFilterRequestDto filter, User currentUser) {
-        if (filter.getIsActive() != null) {
-            return filter.getIsActive()
-                    ? rentalRepository.findActiveRentalsByUserId(currentUser.getId())
-                    : rentalRepository.findCompletedRentalsByUserId(currentUser.getId());
-        } else {
-            return rentalRepository.findByUserId(currentUser.getId());
-        }
+    private List<RentalDetailDto> getRentalsForCustomer(
+            RentalFilterRequestDto filter, User currentUser, RentalCursor cursor, int limit
+    ) {
+        RentalFilterRequestDto ownRentals = new RentalFilterRequestDto();
+        BeanUtils.copyProperties(filter, ownRentals);
+        ownRentals.setUserId(currentUser.getId());
+        return rentalRepository.findPage(ownRentals, cursor, limit);
     }
 }
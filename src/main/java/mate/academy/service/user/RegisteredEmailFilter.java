@@ -0,0 +1,55 @@
+package mate.academy.service.user;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import jakarta.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bloom filter over every email in the users table, soft-deleted rows
+ * included since they still hold the unique key. A negative answer is
+ * definite, so registration can skip the exists query for new emails; a
+ * positive one only means the database has to be asked.
+ */
+@Component
+@RequiredArgsConstructor
+public class RegisteredEmailFilter {
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile BloomFilter<CharSequence> emails;
+
+    @Value("${registration.email-filter.expected-users:1000000}")
+    private long expectedUsers;
+
+    @PostConstruct
+    public void init() {
+        Long userCount = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Long.class);
+        BloomFilter<CharSequence> filter = BloomFilter.create(
+                Funnels.stringFunnel(StandardCharsets.UTF_8),
+                Math.max(expectedUsers, userCount == null ? 0 : userCount * 2),
+                FALSE_POSITIVE_RATE
+        );
+        jdbcTemplate.query("SELECT email FROM users", rs -> {
+            filter.put(normalize(rs.getString("email")));
+        });
+        emails = filter;
+    }
+
+    public boolean mightBeRegistered(String email) {
+        return emails.mightContain(normalize(email));
+    }
+
+    public void add(String email) {
+        emails.put(normalize(email));
+    }
+
+    private String normalize(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+}
@@ -10,6 +10,10 @@ import mate.academy.exception.RegistrationException;
 import mate.academy.mapper.UserMapper;
 import mate.academy.model.User;
 import mate.academy.repository.UserRepository;
+import mate.academy.security.PrincipalCache;
+import mate.academy.security.TokenRevocationRegistry;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -17,25 +21,44 @@ import org.springframework.transaction.annotation.Transactional;
 @Service
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
+    private static final String EMAIL_UNIQUE_KEY = "email";
+
     private final UserRepository userRepository;
     private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
+    private final PrincipalCache principalCache;
+    private final TokenRevocationRegistry revocationRegistry;
+    private final RegisteredEmailFilter registeredEmailFilter;
 
+    /**
+     * Emails the Bloom filter has never seen are new for certain and skip
+     * the exists query. The unique key on users.email stays the final
+     * check: a duplicate that slips through (a concurrent signup, a
+     * soft-deleted account) fails the insert and is reported the same way.
+     * Any other constraint violation is not about the email and is rethrown.
+     */
     @Override
-    @Transactional
+    @Transactional(rollbackFor = RegistrationException.class)
     public UserResponseDto register(UserRegistrationRequestDto requestDto)
             throws RegistrationException {
-        if (userRepository.existsByEmail(requestDto.getEmail())) {
-            throw new RegistrationException(
-                    "User with email " + requestDto.getEmail()
-                            + " already exists."
-            );
+        String email = requestDto.getEmail();
+        if (registeredEmailFilter.mightBeRegistered(email)
+                && userRepository.existsByEmail(email)) {
+            throw alreadyExists(email);
         }
         User user = userMapper.toEntity(requestDto);
         user.setPassword(passwordEncoder.encode(user.getPassword()));
         user.setRole(User.Role.CUSTOMER);
 
-        userRepository.save(user);
+        try {
+            userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            if (isDuplicateEmail(e)) {
+                throw alreadyExists(email);
+            }
+            throw e;
+        }
+        registeredEmailFilter.add(email);
 
         return userMapper.toUserResponse(user);
     }
@@ -59,6 +82,9 @@ public class UserServiceImpl implements UserService {
         } catch (IllegalArgumentException e) {
             throw new IllegalArgumentException("Invalid role specified.");
         }
+        user.setTokenVersion(user.getTokenVersion() + 1);
+        revocationRegistry.revokeBefore(user.getId(), user.getTokenVersion());
+        principalCache.evict(user.getEmail());
         return userMapper.toUserResponse(userRepository.save(user));
     }
 
@@ -69,7 +95,27 @@ public class UserServiceImpl implements UserService {
                 () -> new EntityNotFoundException("Can't find user by id: " + userId)
         );
 
+        String previousEmail = user.getEmail();
         userMapper.updateUserProfile(updateUserProfileDto, user);
         userRepository.save(user);
+        principalCache.evict(previousEmail);
+    }
+
+    private RegistrationException alreadyExists(String email) {
+        return new RegistrationException("User with email " + email + " already exists.");
+    }
+
+    /**
+     * MySQL names the unique key of users.email after the column and
+     * reports it as "users.email" since 8.0.19, plain "email" before.
+     */
+    private boolean isDuplicateEmail(DataIntegrityViolationException e) {
+        if (!(e.getCause() instanceof ConstraintViolationException violation)
+                || violation.getConstraintName() == null) {
+            return false;
+        }
+        String constraintName = violation.getConstraintName();
+        String key = constraintName.substring(constraintName.lastIndexOf('.') + 1);
+        return EMAIL_UNIQUE_KEY.equalsIgnoreCase(key);
     }
 }
@@ -0,0 +1,118 @@
+package mate.academy.notification;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Policy.VarExpiration;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import mate.academy.config.CacheConfig;
+import mate.academy.model.User;
+import mate.academy.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+public class ChatIdResolverTest {
+    private static final Long USER_ID = 1L;
+
+    @Mock
+    private UserRepository userRepository;
+
+    private ChatIdResolver chatIdResolver;
+
+    @BeforeEach
+    void setUp() {
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(List.of(new CaffeineCache(
+                CacheConfig.CHAT_IDS_CACHE, Caffeine.newBuilder().maximumSize(100).build())));
+        cacheManager.afterPropertiesSet();
+        chatIdResolver = new ChatIdResolver(cacheManager, userRepository);
+    }
+
+    @Test
+    @DisplayName("Look a chat id up once and serve it from the cache")
+    void resolve_RepeatedCalls_ShouldQueryOnce() {
+        when(userRepository.findChatIdById(USER_ID)).thenReturn(Optional.of("42"));
+
+        assertEquals(Optional.of("42"), chatIdResolver.resolve(USER_ID));
+        assertEquals(Optional.of("42"), chatIdResolver.resolve(USER_ID));
+
+        verify(userRepository, times(1)).findChatIdById(USER_ID);
+    }
+
+    @Test
+    @DisplayName("Cache a user without chat as a negative entry")
+    void resolve_UserWithoutChat_ShouldCacheEmptyResult() {
+        when(userRepository.findChatIdById(USER_ID)).thenReturn(Optional.empty());
+
+        assertEquals(Optional.empty(), chatIdResolver.resolve(USER_ID));
+        assertEquals(Optional.empty(), chatIdResolver.resolve(USER_ID));
+
+        verify(userRepository, times(1)).findChatIdById(USER_ID);
+    }
+
+    @Test
+    @DisplayName("Look the chat id up again after the user changed")
+    void resolve_AfterEvict_ShouldQueryAgain() {
+        when(userRepository.findChatIdById(USER_ID))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of("42"));
+
+        chatIdResolver.resolve(USER_ID);
+        chatIdResolver.evict(USER_ID);
+
+        assertEquals(Optional.of("42"), chatIdResolver.resolve(USER_ID));
+    }
+
+    @Test
+    @DisplayName("Keep a user without chat for a short time only")
+    void resolve_UserWithoutChat_ShouldExpireSoonerThanLinkedChat() {
+        CacheConfig cacheConfig = new CacheConfig();
+        ReflectionTestUtils.setField(cacheConfig, "chatIdsMaxSize", 100L);
+        ReflectionTestUtils.setField(cacheConfig, "chatIdsTtlMinutes", 10L);
+        ReflectionTestUtils.setField(cacheConfig, "missingChatIdsTtlSeconds", 30L);
+        SimpleCacheManager cacheManager = (SimpleCacheManager) cacheConfig.cacheManager();
+        cacheManager.afterPropertiesSet();
+        chatIdResolver = new ChatIdResolver(cacheManager, userRepository);
+        when(userRepository.findChatIdById(USER_ID)).thenReturn(Optional.empty());
+        when(userRepository.findChatIdById(2L)).thenReturn(Optional.of("42"));
+
+        chatIdResolver.resolve(USER_ID);
+        chatIdResolver.resolve(2L);
+
+        VarExpiration<Object, Object> expiration = ((CaffeineCache) cacheManager
+                .getCache(CacheConfig.CHAT_IDS_CACHE)).getNativeCache()
+                .policy().expireVariably().orElseThrow();
+        assertTrue(expiration.getExpiresAfter(USER_ID).orElseThrow()
+                .compareTo(Duration.ofSeconds(30)) <= 0);
+        assertTrue(expiration.getExpiresAfter(2L).orElseThrow()
+                .compareTo(Duration.ofMinutes(9)) > 0);
+    }
+
+    @Test
+    @DisplayName("Serve a remembered user without a query")
+    void resolve_RememberedUser_ShouldNotQuery() {
+        User user = new User();
+        user.setId(USER_ID);
+        user.setChatId("42");
+
+        chatIdResolver.remember(user);
+
+        assertEquals(Optional.of("42"), chatIdResolver.resolve(USER_ID));
+        verifyNoInteractions(userRepository);
+    }
+}
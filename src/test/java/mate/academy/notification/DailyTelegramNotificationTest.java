@@ -0,0 +1,151 @@
+package mate.academy.notification;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import mate.academy.dto.rental.RentalNotificationRow;
+import mate.academy.repository.RentalRepository;
+import mate.academy.service.lease.JobLeaseService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+public class DailyTelegramNotificationTest {
+    private static final LocalDateTime OVERDUE = LocalDateTime.of(2025, 1, 25, 14, 30);
+    private static final LocalDateTime ON_TIME = LocalDateTime.of(2999, 1, 25, 14, 30);
+
+    @Mock
+    private RentalRepository rentalRepository;
+
+    @Mock
+    private TelegramNotificationService notificationService;
+
+    @Mock
+    private JobLeaseService jobLeaseService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private DailyTelegramNotification dailyNotification;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        dailyNotification = new DailyTelegramNotification(
+                rentalRepository, notificationService, meterRegistry, jobLeaseService);
+        ReflectionTestUtils.setField(dailyNotification, "pageSize", 2);
+        ReflectionTestUtils.setField(dailyNotification, "leaseMinHoldMinutes", 60L);
+    }
+
+    @Test
+    @DisplayName("Queue one digest per user across keyset pages")
+    void sendDailyNotification_UserRentalsSpanPages_ShouldQueueOneDigestPerUser() {
+        when(rentalRepository.findActiveNotificationRows(eq(0L), eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(
+                        row(10L, 1L, "100", "BMW", "X5", OVERDUE),
+                        row(11L, 1L, "100", "Audi", "A6", OVERDUE)));
+        when(rentalRepository.findActiveNotificationRows(eq(1L), eq(11L), any(Pageable.class)))
+                .thenReturn(List.of(
+                        row(12L, 1L, "100", "Ford", "Focus", ON_TIME),
+                        row(20L, 2L, "200", "Opel", "Astra", ON_TIME)));
+        when(rentalRepository.findActiveNotificationRows(eq(2L), eq(20L), any(Pageable.class)))
+                .thenReturn(List.of());
+        List<RentalDigest> queued = new ArrayList<>();
+        doAnswer(invocation -> queued.addAll(invocation.getArgument(0)))
+                .when(notificationService).enqueueDigests(anyList());
+
+        runWithLease();
+        dailyNotification.sendDailyNotification();
+
+        assertEquals(2, queued.size());
+        assertEquals("100", queued.get(0).getChatId());
+        assertEquals("""
+                Overdue Rental Alert!🚨
+
+                - BMW X5, return date: 2025-01-25T14:30
+                - Audi A6, return date: 2025-01-25T14:30
+
+                Active rentals:
+                - Ford Focus, return date: 2999-01-25T14:30
+                """, queued.get(0).render());
+        assertEquals("200", queued.get(1).getChatId());
+        assertEquals("""
+                No rentals overdue today, thank you!
+
+                Active rentals:
+                - Opel Astra, return date: 2999-01-25T14:30
+                """, queued.get(1).render());
+        assertEquals(2.0, meterRegistry.get("notifications.daily.messages")
+                .tag("result", "queued").counter().count());
+        assertEquals(1, meterRegistry.get("notifications.daily.duration").timer().count());
+    }
+
+    @Test
+    @DisplayName("Count digests that could not be queued without stopping the run")
+    void sendDailyNotification_EnqueueFails_ShouldCountFailure() {
+        when(rentalRepository.findActiveNotificationRows(eq(0L), eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(
+                        row(10L, 1L, "100", "BMW", "X5", OVERDUE),
+                        row(20L, 2L, "200", "Opel", "Astra", ON_TIME)));
+        when(rentalRepository.findActiveNotificationRows(eq(2L), eq(20L), any(Pageable.class)))
+                .thenReturn(List.of(row(30L, 3L, "300", "Ford", "Focus", ON_TIME)));
+        doThrow(new IllegalStateException("Deadlock"))
+                .doNothing()
+                .when(notificationService).enqueueDigests(anyList());
+
+        runWithLease();
+        dailyNotification.sendDailyNotification();
+
+        verify(rentalRepository).findActiveNotificationRows(
+                eq(2L), eq(20L), any(Pageable.class));
+        assertEquals(1.0, meterRegistry.get("notifications.daily.messages")
+                .tag("result", "failed").counter().count());
+        assertEquals(2.0, meterRegistry.get("notifications.daily.messages")
+                .tag("result", "queued").counter().count());
+    }
+
+    @Test
+    @DisplayName("Skip the run when another node holds the lease")
+    void sendDailyNotification_LeaseHeldElsewhere_ShouldNotScan() {
+        when(jobLeaseService.runExclusively(
+                eq("daily-telegram-notification"), any(Duration.class), any(Runnable.class)))
+                .thenReturn(false);
+
+        dailyNotification.sendDailyNotification();
+
+        verifyNoInteractions(rentalRepository, notificationService);
+    }
+
+    private void runWithLease() {
+        when(jobLeaseService.runExclusively(
+                eq("daily-telegram-notification"), any(Duration.class), any(Runnable.class)))
+                .thenAnswer(invocation -> {
+                    invocation.<Runnable>getArgument(2).run();
+                    return true;
+                });
+    }
+
+    private RentalNotificationRow row(
+            Long rentalId, Long userId, String chatId,
+            String brand, String model, LocalDateTime returnDate
+    ) {
+        return new RentalNotificationRow(rentalId, userId, chatId, brand, model,
+                returnDate.minusDays(3), returnDate);
+    }
+}
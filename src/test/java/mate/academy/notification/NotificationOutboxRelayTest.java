@@ -0,0 +1,208 @@
+package mate.academy.notification;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import mate.academy.model.PendingNotification;
+import mate.academy.repository.PendingNotificationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+public class NotificationOutboxRelayTest {
+    private static final Long USER_ID = 1L;
+    private static final String CHAT_ID = "42";
+    private static final String MESSAGE = "Payment was successful!";
+    private static final int MAX_IN_FLIGHT = 2;
+
+    @Mock
+    private TelegramClient telegramClient;
+
+    @Mock
+    private ChatIdResolver chatIdResolver;
+
+    @Mock
+    private PendingNotificationRepository pendingNotificationRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private NotificationExecutor notificationExecutor;
+    private ThrottledTelegramSender telegramSender;
+    private NotificationOutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        notificationExecutor = new NotificationExecutor(meterRegistry, 1, 10);
+        telegramSender = new ThrottledTelegramSender(
+                telegramClient, meterRegistry, 1000, 1000, 1, 1000, 1000, 100, 2);
+        TelegramNotificationService notificationService = new TelegramNotificationService(
+                telegramSender, chatIdResolver, pendingNotificationRepository);
+        relay = new NotificationOutboxRelay(notificationService, notificationExecutor,
+                pendingNotificationRepository, meterRegistry, MAX_IN_FLIGHT);
+        ReflectionTestUtils.setField(relay, "batchSize", 100);
+        ReflectionTestUtils.setField(relay, "inFlightTimeoutSeconds", 300L);
+        ReflectionTestUtils.setField(relay, "maxAttempts", 3);
+        ReflectionTestUtils.setField(relay, "backoffBaseSeconds", 10L);
+        ReflectionTestUtils.setField(relay, "backoffMaxSeconds", 3600L);
+
+        when(chatIdResolver.resolve(USER_ID)).thenReturn(Optional.of(CHAT_ID));
+    }
+
+    @AfterEach
+    void tearDown() {
+        notificationExecutor.shutdown();
+        telegramSender.shutdown();
+    }
+
+    @Test
+    @DisplayName("Claim a due row, send it and delete it")
+    void relay_DueRow_ShouldClaimSendAndDelete() {
+        PendingNotification pending = pending(0);
+        when(pendingNotificationRepository.findDue(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(pending));
+
+        relay.relay();
+
+        assertThat(pending.getNextAttemptAt()).isAfter(LocalDateTime.now().plusSeconds(200));
+        verify(telegramClient, timeout(5000)).sendMessage(CHAT_ID, MESSAGE);
+        verify(pendingNotificationRepository, timeout(5000)).deleteById(pending.getId());
+    }
+
+    @Test
+    @DisplayName("Reschedule a failed row with exponential backoff")
+    void relay_SendFails_ShouldBackOff() {
+        PendingNotification pending = pending(1);
+        when(pendingNotificationRepository.findDue(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(pending));
+        doThrow(new IllegalStateException("Too Many Requests"))
+                .when(telegramClient).sendMessage(anyString(), anyString());
+
+        relay.relay();
+
+        ArgumentCaptor<LocalDateTime> nextAttempt = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(pendingNotificationRepository, timeout(5000)).markFailed(eq(pending.getId()),
+                eq(PendingNotification.Status.PENDING), eq(2), nextAttempt.capture(),
+                eq("Too Many Requests"));
+        LocalDateTime now = LocalDateTime.now();
+        assertThat(nextAttempt.getValue()).isBetween(now.plusSeconds(15), now.plusSeconds(21));
+        verify(pendingNotificationRepository, never()).deleteById(any());
+    }
+
+    @Test
+    @DisplayName("Dead-letter a row that failed its last attempt")
+    void relay_LastAttemptFails_ShouldMarkDead() {
+        PendingNotification pending = pending(2);
+        when(pendingNotificationRepository.findDue(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(pending));
+        doThrow(new IllegalStateException("Forbidden"))
+                .when(telegramClient).sendMessage(anyString(), anyString());
+
+        relay.relay();
+
+        verify(pendingNotificationRepository, timeout(5000)).markFailed(eq(pending.getId()),
+                eq(PendingNotification.Status.DEAD), eq(3), any(LocalDateTime.class),
+                eq("Forbidden"));
+    }
+
+    @Test
+    @DisplayName("Delete a row whose user has no chat instead of retrying it")
+    void relay_UserWithoutChat_ShouldDeleteRow() {
+        PendingNotification pending = pending(0);
+        when(pendingNotificationRepository.findDue(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(pending));
+        when(chatIdResolver.resolve(USER_ID)).thenReturn(Optional.empty());
+
+        relay.relay();
+
+        verify(pendingNotificationRepository, timeout(5000)).deleteById(pending.getId());
+        verify(pendingNotificationRepository, never()).markFailed(
+                any(), any(), anyInt(), any(), any());
+        verifyNoInteractions(telegramClient);
+    }
+
+    @Test
+    @DisplayName("No rows are claimed while the in-flight limit is used up")
+    void relay_SendsStillInFlight_ShouldNotClaimMoreRows() throws InterruptedException {
+        CountDownLatch telegramAnswers = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            telegramAnswers.await();
+            return null;
+        }).when(telegramClient).sendMessage(anyString(), anyString());
+        when(pendingNotificationRepository.findDue(any(LocalDateTime.class), any(Pageable.class)))
+                .thenAnswer(invocation -> rows(invocation.<Pageable>getArgument(1).getPageSize()));
+
+        relay.relay();
+        verify(telegramClient, timeout(5000).times(MAX_IN_FLIGHT))
+                .sendMessage(CHAT_ID, MESSAGE);
+        relay.relay();
+
+        ArgumentCaptor<Pageable> page = ArgumentCaptor.forClass(Pageable.class);
+        verify(pendingNotificationRepository).findDue(any(LocalDateTime.class), page.capture());
+        assertThat(page.getValue().getPageSize()).isEqualTo(MAX_IN_FLIGHT);
+
+        telegramAnswers.countDown();
+        verify(pendingNotificationRepository, timeout(5000).times(MAX_IN_FLIGHT))
+                .deleteById(any());
+        awaitNothingInFlight();
+        relay.relay();
+        verify(pendingNotificationRepository, times(2))
+                .findDue(any(LocalDateTime.class), any(Pageable.class));
+    }
+
+    private void awaitNothingInFlight() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("notifications.outbox.in.flight").gauge().value() > 0
+                && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(meterRegistry.get("notifications.outbox.in.flight").gauge().value())
+                .isZero();
+    }
+
+    private List<PendingNotification> rows(int count) {
+        List<PendingNotification> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            PendingNotification pending = pending(0);
+            pending.setId((long) i);
+            rows.add(pending);
+        }
+        return rows;
+    }
+
+    private PendingNotification pending(int attempts) {
+        PendingNotification pending = new PendingNotification();
+        pending.setId(7L);
+        pending.setUserId(USER_ID);
+        pending.setMessage(MESSAGE);
+        pending.setAttempts(attempts);
+        pending.setCreatedAt(LocalDateTime.now());
+        pending.setNextAttemptAt(LocalDateTime.now());
+        return pending;
+    }
+}
@@ -0,0 +1,152 @@
+package mate.academy.notification;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import mate.academy.dto.rental.RentalBookingRow;
+import mate.academy.model.Rental;
+import mate.academy.model.User;
+import mate.academy.repository.RentalRepository;
+import mate.academy.service.lease.JobLeaseService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@ExtendWith(MockitoExtension.class)
+public class OverdueRentalWatcherTest {
+    private static final long RENTAL_ID = 1L;
+    private static final long TEN_MINUTES = Duration.ofMinutes(10).toMillis();
+
+    @Mock
+    private RentalRepository rentalRepository;
+
+    @Mock
+    private NotificationService notificationService;
+
+    @Mock
+    private JobLeaseService jobLeaseService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private OverdueRentalWatcher watcher;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        watcher = new OverdueRentalWatcher(
+                rentalRepository, notificationService, jobLeaseService, meterRegistry, 60, 60, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        watcher.shutdown();
+        TransactionSynchronizationManager.clear();
+    }
+
+    @Test
+    @DisplayName("Watch active rentals not yet due at startup, whether or not a chat is linked")
+    void init_ActiveRentals_ShouldWatchRentalsNotYetDue() {
+        LocalDateTime now = LocalDateTime.now();
+        when(rentalRepository.findActiveBookingRows()).thenReturn(List.of(
+                new RentalBookingRow(1L, 1L, 1, now.minusDays(1), now.plusMinutes(5)),
+                new RentalBookingRow(2L, 1L, 1, now.minusDays(3), now.minusDays(1))));
+
+        watcher.init();
+
+        assertEquals(1.0, watched());
+    }
+
+    @Test
+    @DisplayName("Send the alert once the return date has passed")
+    void tick_ReturnDatePassed_ShouldSendAlert() {
+        Rental rental = rental();
+        when(rentalRepository.findActiveById(RENTAL_ID)).thenReturn(Optional.of(rental));
+        runWithLease();
+
+        watcher.watch(rental);
+        watcher.tick(System.currentTimeMillis() + TEN_MINUTES);
+
+        verify(notificationService, timeout(1000)).sendOverdueRentalNotification(rental);
+        assertEquals(0.0, watched());
+    }
+
+    @Test
+    @DisplayName("Send no alert for a rental completed in the meantime")
+    void tick_RentalAlreadyCompleted_ShouldNotSendAlert() {
+        when(rentalRepository.findActiveById(RENTAL_ID)).thenReturn(Optional.empty());
+        runWithLease();
+
+        watcher.watch(rental());
+        watcher.tick(System.currentTimeMillis() + TEN_MINUTES);
+
+        verify(rentalRepository, timeout(1000)).findActiveById(RENTAL_ID);
+        verifyNoInteractions(notificationService);
+    }
+
+    @Test
+    @DisplayName("Start watching a new rental only after its transaction commits")
+    void watch_InsideTransaction_ShouldScheduleAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        watcher.watch(rental());
+        assertEquals(0.0, watched());
+
+        commit();
+        assertEquals(1.0, watched());
+    }
+
+    @Test
+    @DisplayName("Stop watching a completed rental only after its transaction commits")
+    void unwatch_InsideTransaction_ShouldCancelAfterCommit() {
+        watcher.watch(rental());
+        TransactionSynchronizationManager.initSynchronization();
+
+        watcher.unwatch(RENTAL_ID);
+        assertEquals(1.0, watched());
+
+        commit();
+        assertEquals(0.0, watched());
+    }
+
+    private double watched() {
+        return meterRegistry.get("notifications.overdue.watched").gauge().value();
+    }
+
+    private void commit() {
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(TransactionSynchronization::afterCommit);
+    }
+
+    private void runWithLease() {
+        when(jobLeaseService.runExclusively(
+                eq("overdue-rental-" + RENTAL_ID), any(Duration.class), any(Runnable.class)))
+                .thenAnswer(invocation -> {
+                    invocation.<Runnable>getArgument(2).run();
+                    return true;
+                });
+    }
+
+    private Rental rental() {
+        Rental rental = new Rental();
+        rental.setId(RENTAL_ID);
+        rental.setRentalDate(LocalDateTime.now().minusDays(1));
+        rental.setReturnDate(LocalDateTime.now().plusMinutes(5));
+        rental.setUser(new User());
+        return rental;
+    }
+}
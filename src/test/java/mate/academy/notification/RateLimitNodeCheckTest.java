@@ -0,0 +1,55 @@
+package mate.academy.notification;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import mate.academy.service.lease.JobLeaseService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public class RateLimitNodeCheckTest {
+    @Mock
+    private JobLeaseService jobLeaseService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimitNodeCheck nodeCheck;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        nodeCheck = new RateLimitNodeCheck(jobLeaseService, meterRegistry, 2);
+    }
+
+    @Test
+    @DisplayName("Publish the number of live nodes")
+    void check_MoreNodesThanConfigured_ShouldPublishLiveNodes() {
+        when(jobLeaseService.countLiveNodes()).thenReturn(3);
+
+        nodeCheck.check();
+
+        assertEquals(3.0, liveNodes());
+    }
+
+    @Test
+    @DisplayName("Keep the last count when live nodes cannot be counted")
+    void check_CountFails_ShouldKeepLastCount() {
+        when(jobLeaseService.countLiveNodes())
+                .thenReturn(2)
+                .thenThrow(new IllegalStateException("Connection refused"));
+
+        nodeCheck.check();
+        nodeCheck.check();
+
+        assertEquals(2.0, liveNodes());
+    }
+
+    private double liveNodes() {
+        return meterRegistry.get("telegram.rate-limit.live-nodes").gauge().value();
+    }
+}
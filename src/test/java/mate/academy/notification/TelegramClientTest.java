@@ -0,0 +1,130 @@
+package mate.academy.notification;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import mate.academy.config.RestTemplateConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+public class TelegramClientTest {
+    private static final String TOKEN = "123:secret";
+    private static final byte[] OK_RESPONSE = "{\"ok\":true}".getBytes(StandardCharsets.UTF_8);
+
+    private final Logger logger = LoggerFactory.getLogger(TelegramClientTest.class);
+    private final AtomicInteger receivedMessages = new AtomicInteger();
+    private final AtomicReference<String> lastQuery = new AtomicReference<>();
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private String apiUrl;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        serverExecutor = Executors.newFixedThreadPool(16);
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 256);
+        server.createContext("/bot" + TOKEN + "/sendMessage", this::handle);
+        server.setExecutor(serverExecutor);
+        server.start();
+        apiUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/bot";
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Send a message whose text needs URL encoding")
+    void sendMessage_TextWithReservedCharacters_ShouldArriveIntact() {
+        TelegramClient client = new TelegramClient(pooledRestTemplate(), apiUrl, TOKEN);
+
+        client.sendMessage("42", "Car: BMW X5 & more\nReturn Date: 2025-01-25T14:30");
+
+        assertThat(lastQuery.get())
+                .isEqualTo("chat_id=42&text=Car: BMW X5 & more\nReturn Date: 2025-01-25T14:30");
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Messages per second through the pooled client and a bare RestTemplate")
+    void sendMessage_PooledAndBareClients_ShouldDeliverEveryMessage()
+            throws InterruptedException {
+        int messages = 2000;
+
+        double bare = messagesPerSecond(new TelegramClient(new RestTemplate(), apiUrl, TOKEN),
+                messages);
+        double pooled = messagesPerSecond(new TelegramClient(pooledRestTemplate(), apiUrl, TOKEN),
+                messages);
+
+        logger.info("Stub server, {} messages on 8 threads - bare RestTemplate: {} msg/s, "
+                + "pooled client: {} msg/s", messages, Math.round(bare), Math.round(pooled));
+        assertThat(receivedMessages.get()).isEqualTo(messages * 2);
+    }
+
+    private double messagesPerSecond(TelegramClient client, int messages)
+            throws InterruptedException {
+        ExecutorService senders = Executors.newFixedThreadPool(8);
+        CountDownLatch done = new CountDownLatch(messages);
+        long start = System.nanoTime();
+        for (int i = 0; i < messages; i++) {
+            int messageNumber = i;
+            senders.execute(() -> {
+                try {
+                    client.sendMessage("42", "Message " + messageNumber);
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        assertThat(done.await(2, TimeUnit.MINUTES)).isTrue();
+        long elapsed = System.nanoTime() - start;
+        senders.shutdown();
+        return messages / (elapsed / 1_000_000_000.0);
+    }
+
+    private RestTemplate pooledRestTemplate() {
+        RestTemplateConfig config = new RestTemplateConfig();
+        ReflectionTestUtils.setField(config, "maxConnections", 50);
+        ReflectionTestUtils.setField(config, "maxConnectionsPerHost", 20);
+        ReflectionTestUtils.setField(config, "connectTimeoutMillis", 2000L);
+        ReflectionTestUtils.setField(config, "responseTimeoutMillis", 5000L);
+        ReflectionTestUtils.setField(config, "idleTimeoutSeconds", 30L);
+        CloseableHttpClient httpClient = config.httpClient(
+                config.connectionManager(new SimpleMeterRegistry()));
+        return config.restTemplate(new RestTemplateBuilder(), httpClient);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        lastQuery.set(exchange.getRequestURI().getQuery());
+        receivedMessages.incrementAndGet();
+        exchange.getRequestBody().readAllBytes();
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, OK_RESPONSE.length);
+        try (OutputStream body = exchange.getResponseBody()) {
+            body.write(OK_RESPONSE);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package mate.academy.notification;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Optional;
+import mate.academy.exception.NotificationException;
+import mate.academy.model.PendingNotification;
+import mate.academy.model.Rental;
+import mate.academy.model.User;
+import mate.academy.repository.PendingNotificationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public class TelegramNotificationServiceTest {
+    private static final Long USER_ID = 1L;
+    private static final String CHAT_ID = "42";
+
+    @Mock
+    private TelegramClient telegramClient;
+
+    @Mock
+    private ChatIdResolver chatIdResolver;
+
+    @Mock
+    private PendingNotificationRepository pendingNotificationRepository;
+
+    private ThrottledTelegramSender telegramSender;
+    private TelegramNotificationService notificationService;
+
+    @BeforeEach
+    void setUp() {
+        telegramSender = new ThrottledTelegramSender(telegramClient, new SimpleMeterRegistry(),
+                1000, 1000, 1, 1000, 1000, 100, 2);
+        notificationService = new TelegramNotificationService(
+                telegramSender, chatIdResolver, pendingNotificationRepository);
+    }
+
+    @AfterEach
+    void tearDown() {
+        telegramSender.shutdown();
+    }
+
+    @Test
+    @DisplayName("Write a rental notification to the outbox instead of sending it")
+    void sendNoOverdueRentalNotification_ValidRental_ShouldWriteOutboxRow() {
+        User user = user();
+        Rental rental = new Rental();
+        rental.setUser(user);
+
+        notificationService.sendNoOverdueRentalNotification(rental);
+
+        verify(pendingNotificationRepository).save(argThat(pending ->
+                USER_ID.equals(pending.getUserId())
+                        && pending.getMessage().equals("No rentals overdue today, thank you!")
+                        && pending.getStatus() == PendingNotification.Status.PENDING
+                        && pending.getNextAttemptAt() != null));
+        verify(chatIdResolver).remember(user);
+        verifyNoInteractions(telegramClient);
+    }
+
+    @Test
+    @DisplayName("Skip the outbox for a user without chat")
+    void sendNoOverdueRentalNotification_UserWithoutChat_ShouldNotWriteOutboxRow() {
+        User user = new User();
+        user.setId(USER_ID);
+        Rental rental = new Rental();
+        rental.setUser(user);
+
+        notificationService.sendNoOverdueRentalNotification(rental);
+
+        verify(chatIdResolver).remember(user);
+        verify(pendingNotificationRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Write daily digests to the outbox and remember their chats")
+    void enqueueDigests_Digests_ShouldWriteOutboxRows() {
+        RentalDigest digest = new RentalDigest(USER_ID, CHAT_ID);
+
+        notificationService.enqueueDigests(List.of(digest));
+
+        verify(pendingNotificationRepository).saveAll(argThat(rows -> {
+            List<PendingNotification> pending = (List<PendingNotification>) rows;
+            return pending.size() == 1
+                    && USER_ID.equals(pending.get(0).getUserId())
+                    && pending.get(0).getMessage().equals(digest.render());
+        }));
+        verify(chatIdResolver).remember(USER_ID, CHAT_ID);
+        verifyNoInteractions(telegramClient);
+    }
+
+    @Test
+    @DisplayName("Send a direct notification and report a failed send")
+    void sendNotification_TelegramFails_ShouldThrowNotificationException() {
+        when(chatIdResolver.resolve(USER_ID)).thenReturn(Optional.of(CHAT_ID));
+        doThrow(new IllegalStateException("Bad Gateway"))
+                .when(telegramClient).sendMessage(CHAT_ID, "Hello");
+
+        NotificationException exception = assertThrows(NotificationException.class,
+                () -> notificationService.sendNotification(USER_ID, "Hello"));
+
+        assertEquals("Failed to send notification: Bad Gateway", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Refuse a direct notification to a user without chat")
+    void sendNotification_UserWithoutChat_ShouldThrowNotificationException() {
+        when(chatIdResolver.resolve(USER_ID)).thenReturn(Optional.empty());
+
+        assertThrows(NotificationException.class,
+                () -> notificationService.sendNotification(USER_ID, "Hello"));
+        verify(telegramClient, never()).sendMessage(anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("Send to an already loaded user without resolving the chat")
+    void sendNotification_LoadedUser_ShouldSendToItsChat() {
+        User user = user();
+
+        notificationService.sendNotification(user, "Hello");
+
+        verify(telegramClient, timeout(5000)).sendMessage(CHAT_ID, "Hello");
+        verify(chatIdResolver).remember(user);
+        verify(chatIdResolver, never()).resolve(USER_ID);
+    }
+
+    private User user() {
+        User user = new User();
+        user.setId(USER_ID);
+        user.setChatId(CHAT_ID);
+        return user;
+    }
+}
@@ -0,0 +1,181 @@
+package mate.academy.notification;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Runs against a stub that answers 429 the way Telegram does: more than 30
+ * messages within a second, or two messages to one chat less than a second
+ * apart. The stub allows 100 ms of slack for scheduling and network jitter.
+ */
+public class ThrottledTelegramSenderTest {
+    private static final String TOKEN = "123:secret";
+    private static final int CHATS = 10;
+    private static final int MESSAGES_PER_CHAT = 4;
+    private static final long JITTER_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long SECOND_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicInteger accepted = new AtomicInteger();
+    private final AtomicInteger throttled = new AtomicInteger();
+    private final Deque<Long> recentMessages = new ArrayDeque<>();
+    private final Map<String, Long> lastMessageByChat = new HashMap<>();
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private TelegramClient telegramClient;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        serverExecutor = Executors.newFixedThreadPool(8);
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 256);
+        server.createContext("/bot" + TOKEN + "/sendMessage", this::handle);
+        server.setExecutor(serverExecutor);
+        server.start();
+        String apiUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/bot";
+        telegramClient = new TelegramClient(new RestTemplate(), apiUrl, TOKEN);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("A node count below one is refused at startup")
+    void constructor_NoNodes_ShouldThrowException() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        assertThatThrownBy(() -> new ThrottledTelegramSender(
+                telegramClient, meterRegistry, 25, 5, 0, 1, 1, 1000, 4))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("telegram.rate-limit.nodes");
+    }
+
+    @Test
+    @DisplayName("Unthrottled burst is answered with 429")
+    void sendMessage_WithoutLimiter_ShouldHitRateLimit() {
+        for (int i = 0; i < MESSAGES_PER_CHAT; i++) {
+            for (int chat = 0; chat < CHATS; chat++) {
+                try {
+                    telegramClient.sendMessage(String.valueOf(chat), "Message " + i);
+                } catch (RestClientException e) {
+                    // counted by the stub
+                }
+            }
+        }
+
+        assertThat(throttled.get()).isPositive();
+    }
+
+    @Test
+    @DisplayName("Throttled burst is delayed, never refused")
+    void send_BurstOverBothLimits_ShouldDeliverEverythingWithoutRateLimitErrors() {
+        telegramClient.sendMessage("warm-up", "Opens the connection before measuring");
+        reset();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ThrottledTelegramSender sender = new ThrottledTelegramSender(
+                telegramClient, meterRegistry, 25, 5, 1, 1, 1, 1000, 4);
+        List<CompletableFuture<Void>> results = new ArrayList<>();
+
+        for (int i = 0; i < MESSAGES_PER_CHAT; i++) {
+            for (int chat = 0; chat < CHATS; chat++) {
+                results.add(sender.send(String.valueOf(chat), "Message " + i));
+            }
+        }
+        CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).join();
+        sender.shutdown();
+
+        Timer throttleWait = meterRegistry.get("notifications.throttle.wait").timer();
+        assertThat(throttled.get()).isZero();
+        assertThat(accepted.get()).isEqualTo(CHATS * MESSAGES_PER_CHAT);
+        assertThat(throttleWait.count()).isEqualTo(CHATS * MESSAGES_PER_CHAT);
+        assertThat(throttleWait.max(TimeUnit.MILLISECONDS))
+                .isGreaterThanOrEqualTo((MESSAGES_PER_CHAT - 1) * 1000.0);
+    }
+
+    @Test
+    @DisplayName("Global rate and burst are split over the configured nodes")
+    void send_TwoNodes_ShouldHalveGlobalRate() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ThrottledTelegramSender sender = new ThrottledTelegramSender(
+                telegramClient, meterRegistry, 4, 2, 2, 100, 100, 1000, 1);
+        List<CompletableFuture<Void>> results = new ArrayList<>();
+
+        for (int chat = 0; chat < 3; chat++) {
+            results.add(sender.send(String.valueOf(chat), "Message"));
+        }
+        CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).join();
+        sender.shutdown();
+
+        Timer throttleWait = meterRegistry.get("notifications.throttle.wait").timer();
+        assertThat(throttleWait.max(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(900.0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String query = exchange.getRequestURI().getQuery();
+        String chatId = query.substring("chat_id=".length(), query.indexOf('&'));
+        exchange.getRequestBody().readAllBytes();
+        boolean allowed = admit(chatId, System.nanoTime());
+        if (allowed) {
+            accepted.incrementAndGet();
+        } else {
+            throttled.incrementAndGet();
+        }
+        byte[] body = (allowed
+                ? "{\"ok\":true}"
+                : "{\"ok\":false,\"error_code\":429}").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(allowed ? 200 : 429, body.length);
+        try (OutputStream responseBody = exchange.getResponseBody()) {
+            responseBody.write(body);
+        }
+    }
+
+    private synchronized void reset() {
+        recentMessages.clear();
+        lastMessageByChat.clear();
+        accepted.set(0);
+    }
+
+    private synchronized boolean admit(String chatId, long now) {
+        while (!recentMessages.isEmpty()
+                && now - recentMessages.peekFirst() >= SECOND_NANOS - JITTER_NANOS) {
+            recentMessages.pollFirst();
+        }
+        Long lastMessage = lastMessageByChat.get(chatId);
+        if (recentMessages.size() >= 30
+                || lastMessage != null && now - lastMessage < SECOND_NANOS - JITTER_NANOS) {
+            return false;
+        }
+        recentMessages.addLast(now);
+        lastMessageByChat.put(chatId, now);
+        return true;
+    }
+}
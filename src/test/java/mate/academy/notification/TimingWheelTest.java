@@ -0,0 +1,100 @@
+package mate.academy.notification;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class TimingWheelTest {
+    private static final long START = 1_000_000L;
+    private static final long TICK = 60_000L;
+    private static final int WHEEL_SIZE = 8;
+
+    private final List<Long> fired = new ArrayList<>();
+    private TimingWheel wheel;
+
+    @BeforeEach
+    void setUp() {
+        fired.clear();
+        wheel = new TimingWheel(TICK, WHEEL_SIZE, START, fired::add);
+    }
+
+    @Test
+    @DisplayName("Fire a deadline on the first tick at or after it")
+    void advanceTo_DeadlineReached_ShouldFireWithinOneTick() {
+        wheel.schedule(1L, START + 90_000L);
+
+        wheel.advanceTo(START + TICK);
+        assertThat(fired).isEmpty();
+
+        wheel.advanceTo(START + 2 * TICK);
+        assertThat(fired).containsExactly(1L);
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Keep a deadline more than one revolution away until its turn")
+    void advanceTo_DeadlineBeyondOneRevolution_ShouldWaitForItsRound() {
+        wheel.schedule(1L, START + (WHEEL_SIZE + 2) * TICK);
+        wheel.schedule(2L, START + 2 * TICK);
+
+        wheel.advanceTo(START + 2 * TICK);
+        assertThat(fired).containsExactly(2L);
+
+        wheel.advanceTo(START + (WHEEL_SIZE + 1) * TICK);
+        assertThat(fired).containsExactly(2L);
+
+        wheel.advanceTo(START + (WHEEL_SIZE + 2) * TICK);
+        assertThat(fired).containsExactly(2L, 1L);
+    }
+
+    @Test
+    @DisplayName("Keep deadlines days out in the heap instead of the buckets")
+    void advanceTo_DeadlinesDaysOut_ShouldNotEnterBucketsUntilLastRevolution() {
+        long daysOut = 3 * 24 * 60;
+        for (long key = 1; key <= 100; key++) {
+            wheel.schedule(key, START + (daysOut + key) * TICK);
+        }
+
+        wheel.advanceTo(START + 10 * WHEEL_SIZE * TICK);
+        assertThat(wheel.overflowSize()).isEqualTo(100);
+
+        wheel.advanceTo(START + (daysOut - WHEEL_SIZE + 2) * TICK);
+        assertThat(wheel.overflowSize()).isEqualTo(99);
+        assertThat(fired).isEmpty();
+
+        wheel.advanceTo(START + (daysOut + 100) * TICK);
+        assertThat(wheel.overflowSize()).isZero();
+        assertThat(fired).hasSize(100).isSorted();
+    }
+
+    @Test
+    @DisplayName("Drop cancelled and replaced deadlines")
+    void advanceTo_CancelledOrRescheduled_ShouldFireOnlyCurrentDeadline() {
+        wheel.schedule(1L, START + TICK);
+        wheel.schedule(2L, START + TICK);
+        wheel.schedule(2L, START + 3 * TICK);
+        wheel.cancel(1L);
+
+        wheel.advanceTo(START + 2 * TICK);
+        assertThat(fired).isEmpty();
+        assertThat(wheel.size()).isEqualTo(1);
+
+        wheel.advanceTo(START + 3 * TICK);
+        assertThat(fired).containsExactly(2L);
+    }
+
+    @Test
+    @DisplayName("Fire a deadline that is already past on the next tick")
+    void advanceTo_DeadlineInThePast_ShouldFireOnNextTick() {
+        wheel.advanceTo(START + 5 * TICK);
+        wheel.schedule(1L, START);
+
+        wheel.advanceTo(START + 6 * TICK);
+
+        assertThat(fired).containsExactly(1L);
+    }
+}
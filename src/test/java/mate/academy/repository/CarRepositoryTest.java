@@ -0,0 +1,169 @@
+package mate.academy.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import mate.academy.model.PendingNotification;
+import mate.academy.model.Rental;
+import mate.academy.model.User;
+import mate.academy.service.availability.AvailabilityService;
+import mate.academy.service.availability.AvailabilityServiceImpl;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(AvailabilityServiceImpl.class)
+@Sql(
+        scripts = "classpath:database/07-create-cars-for-inventory-stress-test.sql",
+        executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD
+)
+@Sql(
+        scripts = "classpath:database/08-delete-cars-for-inventory-stress-test.sql",
+        executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD
+)
+public class CarRepositoryTest {
+    private static final Long NARROW_LOCK_CAR_ID = 1L;
+    private static final Long WIDE_LOCK_CAR_ID = 2L;
+    private static final String EMAIL = "bob@gmail.com";
+    private static final int INVENTORY = 100;
+    private static final int BOOKINGS = 300;
+    private static final int THREADS = 16;
+    private static final LocalDateTime RENTAL_DATE = LocalDateTime.now().plusMonths(1);
+
+    private final Logger logger = LoggerFactory.getLogger(CarRepositoryTest.class);
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RentalRepository rentalRepository;
+
+    @Autowired
+    private PendingNotificationRepository pendingNotificationRepository;
+
+    @Autowired
+    private AvailabilityService availabilityService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("Concurrent bookings locking the car only for the check never overbook")
+    void reserve_ConcurrentBookings_ShouldNotOverbook() throws Exception {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        AtomicInteger booked = new AtomicInteger();
+
+        long elapsedNanos = runConcurrently(
+                () -> book(transaction, booked, NARROW_LOCK_CAR_ID, false));
+
+        assertEquals(INVENTORY, booked.get());
+        assertEquals(INVENTORY, countActive(NARROW_LOCK_CAR_ID));
+        logger.info("Lock for the check only: {} bookings/s, {} accepted",
+                throughput(elapsedNanos), booked.get());
+    }
+
+    @Test
+    @DisplayName("Concurrent bookings locking the car for the whole transaction as a baseline")
+    void reserve_ConcurrentBookingsWholeTransactionLock_Baseline() throws Exception {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        AtomicInteger booked = new AtomicInteger();
+
+        long elapsedNanos = runConcurrently(
+                () -> book(transaction, booked, WIDE_LOCK_CAR_ID, true));
+
+        assertEquals(INVENTORY, countActive(WIDE_LOCK_CAR_ID));
+        logger.info("Lock for the whole transaction: {} bookings/s, {} accepted",
+                throughput(elapsedNanos), booked.get());
+    }
+
+    /**
+     * Does what createRental does: the user lookup and the notification row,
+     * then the admission and the insert. The baseline takes the car lock
+     * first, as createRental used to.
+     */
+    private void book(
+            TransactionTemplate transaction, AtomicInteger booked, Long carId, boolean lockFirst
+    ) {
+        try {
+            transaction.executeWithoutResult(status -> {
+                if (lockFirst) {
+                    carRepository.lockInventory(carId);
+                }
+                User user = userRepository.findByEmail(EMAIL).orElseThrow();
+                PendingNotification pending = new PendingNotification();
+                pending.setUserId(user.getId());
+                pending.setMessage("New rental");
+                pending.setCreatedAt(LocalDateTime.now());
+                pending.setNextAttemptAt(LocalDateTime.now());
+                pendingNotificationRepository.save(pending);
+
+                Rental rental = new Rental();
+                rental.setCar(carRepository.getReferenceById(carId));
+                rental.setUser(user);
+                rental.setRentalDate(RENTAL_DATE);
+                rental.setReturnDate(RENTAL_DATE.plusDays(3));
+                availabilityService.reserve(rental);
+                rentalRepository.save(rental);
+            });
+            booked.incrementAndGet();
+        } catch (IllegalStateException e) {
+            assertEquals("Car is not available for rental", e.getMessage());
+        }
+    }
+
+    private long countActive(Long carId) {
+        return rentalRepository.findActiveBookingRows().stream()
+                .filter(row -> row.getCarId().equals(carId))
+                .count();
+    }
+
+    private long runConcurrently(Runnable booking) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < BOOKINGS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    booking.run();
+                    return null;
+                }));
+            }
+            long startedAt = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            return System.nanoTime() - startedAt;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private long throughput(long elapsedNanos) {
+        return BOOKINGS * 1_000_000_000L / Math.max(elapsedNanos, 1);
+    }
+}
@@ -0,0 +1,122 @@
+package mate.academy.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import jakarta.persistence.EntityManager;
+import java.lang.management.ManagementFactory;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import mate.academy.dto.rental.RentalDetailDto;
+import mate.academy.dto.rental.RentalFilterRequestDto;
+import mate.academy.model.Rental;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@Tag("benchmark")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class RentalProjectionBenchmarkTest {
+    private static final int ROWS = 10_000;
+    private static final long CAR_ID = 100L;
+    private static final long USER_ID = 100L;
+
+    private final Logger logger = LoggerFactory.getLogger(RentalProjectionBenchmarkTest.class);
+
+    @Autowired
+    private RentalRepository rentalRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("insert into cars (id, model, brand, type, inventory, daily_fee) "
+                + "values (?, 'X5', 'BMW', 'SUV', 10, 130.99)", CAR_ID);
+        jdbcTemplate.update("insert into users (id, email, first_name, last_name, password, role) "
+                + "values (?, 'bench@gmail.com', 'Bench', 'Mark', 'password', 'CUSTOMER')",
+                USER_ID);
+
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 10, 0);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            LocalDateTime rentalDate = start.plusMinutes(i);
+            rows.add(new Object[]{
+                    Timestamp.valueOf(rentalDate), Timestamp.valueOf(rentalDate.plusDays(3)),
+                    CAR_ID, USER_ID
+            });
+        }
+        jdbcTemplate.batchUpdate("insert into rentals (rental_date, return_date, car_id, user_id) "
+                + "values (?, ?, ?, ?)", rows);
+    }
+
+    @Test
+    @DisplayName("Projection read path allocates less than the entity graph path")
+    void findPage_TenThousandRows_ShouldAllocateLessThanEntityGraph() {
+        RentalFilterRequestDto filter = new RentalFilterRequestDto();
+        filter.setUserId(USER_ID);
+
+        Supplier<List<RentalDetailDto>> projectionPath =
+                () -> rentalRepository.findPage(filter, null, ROWS);
+        Supplier<List<RentalDetailDto>> entityPath = () -> entityManager
+                .createQuery("SELECT r FROM Rental r JOIN FETCH r.car JOIN FETCH r.user u "
+                        + "WHERE u.id = :userId", Rental.class)
+                .setParameter("userId", USER_ID)
+                .getResultStream()
+                .map(this::toDto)
+                .toList();
+
+        Measurement projection = measure(projectionPath);
+        Measurement entity = measure(entityPath);
+
+        logger.info("Per {} rows - projection: {} KiB, {} ms; entity graph: {} KiB, {} ms",
+                ROWS, projection.allocatedBytes() / 1024, projection.millis(),
+                entity.allocatedBytes() / 1024, entity.millis());
+        assertTrue(projection.allocatedBytes() < entity.allocatedBytes());
+    }
+
+    private Measurement measure(Supplier<List<RentalDetailDto>> path) {
+        assertEquals(ROWS, path.get().size());
+        entityManager.clear();
+
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long startedAt = System.nanoTime();
+        List<RentalDetailDto> result = path.get();
+        long elapsedNanos = System.nanoTime() - startedAt;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        entityManager.clear();
+
+        assertEquals(ROWS, result.size());
+        return new Measurement(allocated, elapsedNanos / 1_000_000);
+    }
+
+    private RentalDetailDto toDto(Rental rental) {
+        return new RentalDetailDto(
+                rental.getId(),
+                rental.getRentalDate(),
+                rental.getReturnDate(),
+                rental.getActualReturnDate(),
+                rental.getCar().getModel(),
+                rental.getUser().getEmail()
+        );
+    }
+
+    private record Measurement(long allocatedBytes, long millis) {
+    }
+}
@@ -8,13 +8,20 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Optional;
+import mate.academy.dto.rental.RentalBookingRow;
+import mate.academy.dto.rental.RentalCursor;
+import mate.academy.dto.rental.RentalDetailDto;
+import mate.academy.dto.rental.RentalFilterRequestDto;
+import mate.academy.dto.rental.RentalNotificationRow;
 import mate.academy.exception.EntityNotFoundException;
+import mate.academy.model.Car;
 import mate.academy.model.Rental;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.jdbc.Sql;
 
 @DataJpaTest
@@ -33,287 +40,139 @@ public class RentalRepositoryTest {
     private DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
 
     @Test
-    @DisplayName("Find rentals by valid user id")
-    void findByUserId_ValidUserId_ShouldReturnListOfRentals() {
-        Long validUserId = 1L;
+    @DisplayName("Find first page of rentals")
+    void findPage_NoCursor_ShouldReturnFirstRentalsInOrder() {
+        List<RentalDetailDto> actualList = rentalRepository
+                .findPage(new RentalFilterRequestDto(), null, 2);
 
-        List<Rental> actualList = rentalRepository.findByUserId(validUserId);
-
-        assertEquals(3, actualList.size());
-        assertEquals(
-                LocalDateTime.parse("2025-01-20 14:30", formatter),
-                actualList.get(0).getRentalDate()
-        );
-        assertEquals(
-                LocalDateTime.parse("2025-01-25 14:30", formatter),
-                actualList.get(0).getReturnDate()
-        );
-        assertEquals(
-                LocalDateTime.parse("2025-01-24 14:30", formatter),
-                actualList.get(0).getActualReturnDate()
-        );
-        assertEquals(1, actualList.get(0).getUser().getId());
-        assertEquals(1, actualList.get(0).getCar().getId());
-    }
-
-    @Test
-    @DisplayName("Find rentals by invalid user id")
-    void findByUserId_InvalidUserId_ShouldReturnEmptyList() {
-        Long invalidUserId = 999L;
-
-        List<Rental> actualList = rentalRepository.findByUserId(invalidUserId);
-
-        assertEquals(0, actualList.size());
-        assertTrue(actualList.isEmpty());
-    }
-
-    @Test
-    @DisplayName("Find rental by valid rental's id and valid user's id")
-    void findByIdAndUserId_ValidRentalIdAndValidUserId_ShouldReturnRental() {
-        Long validUserId = 1L;
-        Long validRentalId = 1L;
-
-        Rental actualRental = rentalRepository
-                .findByIdAndUserId(validRentalId, validUserId).orElseThrow(
-                    () -> new EntityNotFoundException("Can't find user")
-        );
-
-        assertEquals(
-                LocalDateTime.parse("2025-01-20 14:30", formatter),
-                actualRental.getRentalDate()
-        );
-        assertEquals(
-                LocalDateTime.parse("2025-01-25 14:30", formatter),
-                actualRental.getReturnDate()
-        );
-        assertEquals(
-                LocalDateTime.parse("2025-01-24 14:30", formatter),
-                actualRental.getActualReturnDate()
-        );
+        assertEquals(2, actualList.size());
+        assertEquals(1L, actualList.get(0).getId());
+        assertEquals(2L, actualList.get(1).getId());
     }
 
     @Test
-    @DisplayName("Find rental by invalid rental's id and invalid user's id")
-    void findByIdAndUserId_InvalidRentalIdAndInvalidUserId_ShouldReturnOptionalEmpty() {
-        Long invalidUserId = 999L;
-        Long invalidRentalId = 999L;
-
-        assertEquals(
-                Optional.empty(),
-                rentalRepository.findByIdAndUserId(invalidRentalId, invalidUserId)
+    @DisplayName("Find page of rentals after a cursor")
+    void findPage_WithCursor_ShouldSeekPastCursor() {
+        RentalCursor after = new RentalCursor(
+                LocalDateTime.parse("2025-01-20 14:30", formatter), 2L
         );
-    }
 
-    @Test
-    @DisplayName("Find rental by valid rental's id and invalid user's id")
-    void findByIdAndUserId_ValidRentalIdAndInvalidUserId_ShouldReturnOptionalEmpty() {
-        Long invalidUserId = 999L;
-        Long invalidRentalId = 1L;
+        List<RentalDetailDto> actualList = rentalRepository
+                .findPage(new RentalFilterRequestDto(), after, 2);
 
-        assertEquals(
-                Optional.empty(),
-                rentalRepository.findByIdAndUserId(invalidRentalId, invalidUserId)
-        );
+        assertEquals(1, actualList.size());
+        assertEquals(3L, actualList.get(0).getId());
+        assertEquals("Laguna4", actualList.get(0).getCarModel());
+        assertEquals("bob@gmail.com", actualList.get(0).getUserEmail());
     }
 
     @Test
-    @DisplayName("Find rental by invalid rental's id and valid user's id")
-    void findByIdAndUserId_InvalidRentalIdAndValidUserId_ShouldReturnOptionalEmpty() {
-        Long invalidUserId = 1L;
-        Long invalidRentalId = 999L;
+    @DisplayName("Find page of active rentals for a user")
+    void findPage_ActiveFilter_ShouldReturnActiveRentals() {
+        RentalFilterRequestDto filter = new RentalFilterRequestDto();
+        filter.setUserId(1L);
+        filter.setIsActive(true);
 
-        assertEquals(
-                Optional.empty(),
-                rentalRepository.findByIdAndUserId(invalidRentalId, invalidUserId)
-        );
-    }
-
-    @Test
-    @DisplayName("Find active rentals when they are")
-    void findActiveRentals_FoundActiveRentals_ShouldReturnListOfRentals() {
-        List<Rental> actualList = rentalRepository.findActiveRentals();
+        List<RentalDetailDto> actualList = rentalRepository.findPage(filter, null, 10);
 
         assertEquals(2, actualList.size());
-        assertEquals(
-                LocalDateTime.parse("2025-01-20 14:30", formatter),
-                actualList.get(1).getRentalDate()
-        );
-        assertEquals(
-                LocalDateTime.parse("2026-01-25 14:30", formatter),
-                actualList.get(1).getReturnDate()
-        );
-        assertNull(actualList.get(1).getActualReturnDate());
-        assertEquals(1, actualList.get(1).getUser().getId());
-        assertEquals(3, actualList.get(1).getCar().getId());
-    }
-
-    @Test
-    @DisplayName("Find active rentals when they are not")
-    @Sql(
-            scripts = "classpath:"
-                    + "database/04-delete-cars-users-rentals-for-rental-repository-test.sql",
-            executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD
-    )
-    @Sql(
-            scripts = "classpath:"
-                    + "database/03-create-cars-users-rentals-for-rental-repository-test.sql",
-            executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD
-    )
-    void findActiveRentals_NotFoundActiveRentals_ShouldReturnEmptyList() {
-        List<Rental> actualList = rentalRepository.findActiveRentals();
-
-        assertTrue(actualList.isEmpty());
+        actualList.forEach(rental -> assertNull(rental.getActualReturnDate()));
     }
 
     @Test
-    @DisplayName("Find active rentals by valid user id")
-    void findActiveRentalsByUserId_ValidUserId_ShouldReturnListOfRentals() {
-        Long validUserId = 1L;
+    @DisplayName("Find page by car type and rental date range")
+    void findPage_CarTypeAndRentalDateRange_ShouldReturnMatchingRentals() {
+        RentalFilterRequestDto filter = new RentalFilterRequestDto();
+        filter.setCarType(Car.Type.SEDAN);
+        filter.setRentalDateFrom(LocalDateTime.parse("2025-01-20 00:00", formatter));
+        filter.setRentalDateTo(LocalDateTime.parse("2025-01-21 00:00", formatter));
 
-        List<Rental> actualList = rentalRepository.findActiveRentalsByUserId(validUserId);
+        List<RentalDetailDto> actualList = rentalRepository.findPage(filter, null, 10);
 
-        assertEquals(2, actualList.size());
-        assertEquals(
-                LocalDateTime.parse("2025-01-20 14:30", formatter),
-                actualList.get(1).getRentalDate()
-        );
-        assertEquals(
-                LocalDateTime.parse("2026-01-25 14:30", formatter),
-                actualList.get(1).getReturnDate()
-        );
-        assertNull(actualList.get(1).getActualReturnDate());
-        assertEquals(1, actualList.get(1).getUser().getId());
-        assertEquals(3, actualList.get(1).getCar().getId());
+        assertEquals(1, actualList.size());
+        assertEquals(2L, actualList.get(0).getId());
+        assertEquals("RS7", actualList.get(0).getCarModel());
     }
 
     @Test
-    @DisplayName("Find active rentals by invalid user id")
-    void findActiveRentalsByUserId_InvalidUserId_ShouldReturnEmptyList() {
-        Long invalidUserId = 999L;
+    @DisplayName("Find page of overdue rentals for a car")
+    void findPage_OverdueAndCarFilter_ShouldReturnOverdueRentals() {
+        RentalFilterRequestDto filter = new RentalFilterRequestDto();
+        filter.setCarId(2L);
+        filter.setIsOverdue(true);
 
-        List<Rental> actualList = rentalRepository.findActiveRentalsByUserId(invalidUserId);
-        assertTrue(actualList.isEmpty());
+        List<RentalDetailDto> actualList = rentalRepository.findPage(filter, null, 10);
+
+        assertEquals(1, actualList.size());
+        assertEquals(2L, actualList.get(0).getId());
+        assertNull(actualList.get(0).getActualReturnDate());
     }
 
     @Test
-    @DisplayName("Find completed rentals by valid user id")
-    void findCompletedRentalsByUserId_ValidUserId_ShouldReturnListOfRentals() {
-        Long validUserId = 1L;
-
-        List<Rental> actualList = rentalRepository.findCompletedRentalsByUserId(validUserId);
-
-        assertEquals(1, actualList.size());
-        assertEquals(
-                LocalDateTime.parse("2025-01-20 14:30", formatter),
-                actualList.get(0).getRentalDate()
-        );
-        assertEquals(
-                LocalDateTime.parse("2025-01-25 14:30", formatter),
-                actualList.get(0).getReturnDate()
+    @DisplayName("Find rental detail by valid rental's id and valid user's id")
+    void findDetailByIdAndUserId_ValidIds_ShouldReturnRentalDetailDto() {
+        RentalDetailDto actual = rentalRepository.findDetailByIdAndUserId(1L, 1L).orElseThrow(
+                () -> new EntityNotFoundException("Can't find rental")
         );
+
+        assertEquals(1L, actual.getId());
+        assertEquals("X5", actual.getCarModel());
+        assertEquals("bob@gmail.com", actual.getUserEmail());
         assertEquals(
                 LocalDateTime.parse("2025-01-24 14:30", formatter),
-                actualList.get(0).getActualReturnDate()
+                actual.getActualReturnDate()
         );
-        assertEquals(1, actualList.get(0).getUser().getId());
-        assertEquals(1, actualList.get(0).getCar().getId());
     }
 
     @Test
-    @DisplayName("Find completed rentals by invalid user id")
-    void findCompletedRentalsByUserId_InvalidUserId_ShouldReturnEmptyList() {
-        Long invalidUserId = 999L;
-
-        List<Rental> actualList = rentalRepository.findCompletedRentalsByUserId(invalidUserId);
-
-        assertTrue(actualList.isEmpty());
+    @DisplayName("Find rental detail by valid rental's id and another user's id")
+    void findDetailByIdAndUserId_OtherUsersRental_ShouldReturnOptionalEmpty() {
+        assertEquals(Optional.empty(), rentalRepository.findDetailByIdAndUserId(1L, 999L));
     }
 
     @Test
-    @DisplayName("Find completed rentals when they are")
-    void findCompletedRentals_FoundCompletedRentals_ShouldReturnListOfRentals() {
-        List<Rental> actualList = rentalRepository.findCompletedRentals();
+    @DisplayName("Scan active rentals for notifications in keyset pages")
+    void findActiveNotificationRows_PageSizeOne_ShouldSeekPastPreviousRow() {
+        List<RentalNotificationRow> firstPage = rentalRepository
+                .findActiveNotificationRows(0L, 0L, PageRequest.of(0, 1));
 
-        assertEquals(1, actualList.size());
-        assertEquals(
-                LocalDateTime.parse("2025-01-20 14:30", formatter),
-                actualList.get(0).getRentalDate()
-        );
-        assertEquals(
-                LocalDateTime.parse("2025-01-25 14:30", formatter),
-                actualList.get(0).getReturnDate()
-        );
-        assertEquals(
-                LocalDateTime.parse("2025-01-24 14:30", formatter),
-                actualList.get(0).getActualReturnDate()
-        );
-        assertEquals(1, actualList.get(0).getUser().getId());
-        assertEquals(1, actualList.get(0).getCar().getId());
-    }
+        assertEquals(2L, firstPage.get(0).getRentalId());
+        assertEquals("1212", firstPage.get(0).getChatId());
+        assertEquals("Audi", firstPage.get(0).getCarBrand());
+        assertEquals("RS7", firstPage.get(0).getCarModel());
 
-    @Test
-    @DisplayName("Find completed rentals when they are not")
-    @Sql(
-            scripts = "classpath:"
-                    + "database/04-delete-cars-users-rentals-for-rental-repository-test.sql",
-            executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD
-    )
-    @Sql(
-            scripts = "classpath:"
-                    + "database/03-create-cars-users-rentals-for-rental-repository-test.sql",
-            executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD
-    )
-    void findCompletedRentals_NotFoundCompletedRentals_ShouldReturnEmptyList() {
-        List<Rental> actualRentals = rentalRepository.findCompletedRentals();
+        List<RentalNotificationRow> secondPage = rentalRepository
+                .findActiveNotificationRows(1L, 2L, PageRequest.of(0, 1));
 
-        assertTrue(actualRentals.isEmpty());
+        assertEquals(3L, secondPage.get(0).getRentalId());
+        assertTrue(rentalRepository
+                .findActiveNotificationRows(1L, 3L, PageRequest.of(0, 1)).isEmpty());
     }
 
     @Test
-    @DisplayName("Find overdue rentals")
-    void findByReturnDateBeforeAndActualReturnDateIsNull_Valid_ShouldReturnListOfRentals() {
-        LocalDateTime valid = LocalDateTime.now();
-
-        List<Rental> actualList = rentalRepository
-                .findByReturnDateBeforeAndActualReturnDateIsNull(valid);
-
-        assertEquals(1, actualList.size());
-        assertEquals(
-                LocalDateTime.parse("2025-01-20 14:30", formatter),
-                actualList.get(0).getRentalDate()
-        );
-        assertEquals(
-                LocalDateTime.parse("2025-01-25 14:30", formatter),
-                actualList.get(0).getReturnDate()
-        );
-        assertNull(actualList.get(0).getActualReturnDate());
-        assertEquals(2, actualList.get(0).getCar().getId());
-        assertEquals(1, actualList.get(0).getUser().getId());
+    @DisplayName("Find booking rows of active rentals")
+    void findActiveBookingRows_ActiveRentals_ShouldReturnCarInventory() {
+        List<RentalBookingRow> actualList = rentalRepository.findActiveBookingRows();
 
+        assertEquals(2, actualList.size());
+        RentalBookingRow overdue = actualList.stream()
+                .filter(row -> row.getRentalId() == 2L)
+                .findFirst()
+                .orElseThrow();
+        assertEquals(2L, overdue.getCarId());
+        assertEquals(15, overdue.getCarInventory());
     }
 
     @Test
-    @DisplayName("Find no overdue rentals")
-    void findByReturnDateAfterOrActualReturnDateIsNotNull_Valid_ShouldReturnListOfRentals() {
-        LocalDateTime valid = LocalDateTime.parse("2025-01-25 14:30", formatter);
+    @DisplayName("Find active rentals of a car including its overdue rental")
+    void findActiveByCarIdForShare_OverdueRental_ShouldReturnRental() {
+        LocalDateTime nextYear = LocalDateTime.parse("2027-01-01 10:00", formatter);
+        LocalDateTime rentalDate = LocalDateTime.parse("2025-01-20 14:30", formatter);
 
-        List<Rental> actualList = rentalRepository
-                .findByReturnDateAfterOrActualReturnDateIsNotNull(valid);
+        List<Rental> actualList = rentalRepository.findActiveByCarIdForShare(2L, nextYear);
 
-        assertEquals(2, actualList.size());
-        assertEquals(
-                LocalDateTime.parse("2025-01-20 14:30", formatter),
-                actualList.get(0).getRentalDate()
-        );
-        assertEquals(
-                LocalDateTime.parse("2025-01-25 14:30", formatter),
-                actualList.get(0).getReturnDate()
-        );
-        assertEquals(
-                LocalDateTime.parse("2025-01-24 14:30", formatter),
-                actualList.get(0).getActualReturnDate()
-        );
-        assertEquals(1, actualList.get(0).getUser().getId());
-        assertEquals(1, actualList.get(0).getCar().getId());
+        assertEquals(1, actualList.size());
+        assertEquals(2L, actualList.get(0).getId());
+        assertTrue(rentalRepository.findActiveByCarIdForShare(2L, rentalDate).isEmpty());
     }
 }
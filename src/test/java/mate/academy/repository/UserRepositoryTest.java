@@ -69,4 +69,16 @@ public class UserRepositoryTest {
 
         assertEquals(Optional.empty(), userRepository.findByEmail(invalidEmail));
     }
+
+    @Test
+    @DisplayName("Find chat id by valid user id")
+    void findChatIdById_ValidId_ShouldReturnChatId() {
+        assertEquals(Optional.of("1212"), userRepository.findChatIdById(1L));
+    }
+
+    @Test
+    @DisplayName("Find chat id by invalid user id")
+    void findChatIdById_InvalidId_ShouldReturnOptionalEmpty() {
+        assertEquals(Optional.empty(), userRepository.findChatIdById(100L));
+    }
 }
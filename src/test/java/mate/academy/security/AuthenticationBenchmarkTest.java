@@ -0,0 +1,200 @@
+package mate.academy.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import mate.academy.dto.user.UserLoginRequestDto;
+import mate.academy.exception.TooManyRequestsException;
+import mate.academy.model.RefreshToken;
+import mate.academy.model.User;
+import mate.academy.repository.RefreshTokenRepository;
+import mate.academy.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Wall-clock runs against hand-wired collaborators with real BCrypt. Left
+ * out of the default build, run with {@code mvn test -Pbenchmark}; the
+ * throttling the attack run relies on is checked quickly in
+ * {@link LoginThrottleTest}.
+ */
+@Tag("benchmark")
+public class AuthenticationBenchmarkTest {
+    private static final String PASSWORD = "password";
+    private static final String ATTACKER_ADDRESS = "10.0.0.66";
+    private static final int MAX_FAILURES_PER_IP = 20;
+    private static final int LOGIN_THREADS = 4;
+
+    private final Logger logger = LoggerFactory.getLogger(AuthenticationBenchmarkTest.class);
+    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder(8);
+    private final String passwordHash = passwordEncoder.encode(PASSWORD);
+    private final AtomicInteger passwordChecks = new AtomicInteger();
+
+    private LoginExecutor loginExecutor;
+    private RefreshTokenRepository refreshTokenRepository;
+    private AuthenticationService authenticationService;
+
+    @BeforeEach
+    void setUp() {
+        JwtUtil jwtUtil = new JwtUtil("secretForTesting385390952805948549u4828", 100);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 60_000L);
+
+        refreshTokenRepository = mock(RefreshTokenRepository.class);
+        RefreshTokenService refreshTokenService = new RefreshTokenService(refreshTokenRepository);
+        ReflectionTestUtils.setField(refreshTokenService, "refreshExpirationDays", 30L);
+
+        loginExecutor = new LoginExecutor(new SimpleMeterRegistry(), LOGIN_THREADS, 256, 5000);
+        LoginThrottle loginThrottle = new LoginThrottle(15, 5, MAX_FAILURES_PER_IP, 1000);
+        AuthenticationManager authenticationManager = this::checkPassword;
+
+        authenticationService = new AuthenticationService(
+                jwtUtil, authenticationManager, mock(UserRepository.class),
+                mock(TokenRevocationRegistry.class), mock(PrincipalCache.class),
+                loginThrottle, loginExecutor, refreshTokenService
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        loginExecutor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Refresh throughput compared with full login throughput")
+    void refresh_ComparedWithLogin_ShouldHaveHigherThroughput() {
+        when(refreshTokenRepository.findByTokenHash(any())).thenAnswer(
+                invocation -> Optional.of(storedRefreshToken(LocalDateTime.now().plusDays(1))));
+        when(refreshTokenRepository.deleteByTokenHash(any())).thenReturn(1);
+        int operations = 50;
+
+        long loginStart = System.nanoTime();
+        for (int i = 0; i < operations; i++) {
+            authenticationService.authenticate(
+                    new UserLoginRequestDto("bob@gmail.com", PASSWORD), "10.0.0.1");
+        }
+        double loginsPerSecond = operations / seconds(System.nanoTime() - loginStart);
+
+        long refreshStart = System.nanoTime();
+        for (int i = 0; i < operations; i++) {
+            authenticationService.refresh("refresh-token");
+        }
+        double refreshesPerSecond = operations / seconds(System.nanoTime() - refreshStart);
+
+        logger.info("Login: {} ops/s, refresh: {} ops/s",
+                Math.round(loginsPerSecond), Math.round(refreshesPerSecond));
+        assertThat(refreshesPerSecond).isGreaterThan(loginsPerSecond);
+    }
+
+    @Test
+    @DisplayName("Legitimate logins keep succeeding during a credential stuffing attack")
+    void authenticate_DuringAttack_ShouldServeLegitimateLogins() throws InterruptedException {
+        int attackAttempts = 500;
+        int legitimateLogins = 100;
+        ExecutorService clients = Executors.newFixedThreadPool(32);
+        CountDownLatch done = new CountDownLatch(attackAttempts + legitimateLogins);
+        AtomicInteger throttled = new AtomicInteger();
+        AtomicInteger legitimateFailures = new AtomicInteger();
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+
+        for (int i = 0; i < attackAttempts + legitimateLogins; i++) {
+            int attempt = i;
+            clients.execute(() -> {
+                try {
+                    if (attempt % 6 == 0) {
+                        latencies.add(timeLegitimateLogin(attempt, legitimateFailures));
+                    } else {
+                        attack(attempt, throttled);
+                    }
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        assertThat(done.await(2, TimeUnit.MINUTES)).isTrue();
+        clients.shutdown();
+
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        long p99 = sorted.get((int) Math.ceil(sorted.size() * 0.99) - 1);
+        logger.info("{} legitimate logins during attack, p99 {} ms, {} attack attempts throttled",
+                sorted.size(), TimeUnit.NANOSECONDS.toMillis(p99), throttled.get());
+
+        assertThat(legitimateFailures.get()).isZero();
+        assertThat(throttled.get()).isGreaterThan(attackAttempts - legitimateLogins
+                - MAX_FAILURES_PER_IP - 32);
+    }
+
+    private long timeLegitimateLogin(int attempt, AtomicInteger failures) {
+        long start = System.nanoTime();
+        try {
+            authenticationService.authenticate(
+                    new UserLoginRequestDto("user" + attempt + "@gmail.com", PASSWORD),
+                    "192.168.0." + (attempt % 250));
+        } catch (RuntimeException e) {
+            failures.incrementAndGet();
+        }
+        return System.nanoTime() - start;
+    }
+
+    private void attack(int attempt, AtomicInteger throttled) {
+        try {
+            authenticationService.authenticate(
+                    new UserLoginRequestDto("victim" + attempt + "@gmail.com", "guess"),
+                    ATTACKER_ADDRESS);
+        } catch (TooManyRequestsException e) {
+            throttled.incrementAndGet();
+        } catch (BadCredentialsException e) {
+            // expected for attempts that got through to the password check
+        }
+    }
+
+    private double seconds(long nanos) {
+        return nanos / 1_000_000_000.0;
+    }
+
+    private RefreshToken storedRefreshToken(LocalDateTime expiresAt) {
+        User user = new User();
+        user.setId(1L);
+        user.setEmail("bob@gmail.com");
+        user.setRole(User.Role.CUSTOMER);
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setUser(user);
+        refreshToken.setExpiresAt(expiresAt);
+        return refreshToken;
+    }
+
+    private Authentication checkPassword(Authentication request) {
+        passwordChecks.incrementAndGet();
+        if (!passwordEncoder.matches(request.getCredentials().toString(), passwordHash)) {
+            throw new BadCredentialsException("Bad credentials");
+        }
+        User user = new User();
+        user.setEmail(request.getName());
+        user.setRole(User.Role.CUSTOMER);
+        return new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+    }
+}
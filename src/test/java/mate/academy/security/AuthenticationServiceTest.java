@@ -0,0 +1,162 @@
+package mate.academy.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import io.jsonwebtoken.Claims;
+import java.util.Date;
+import java.util.concurrent.Callable;
+import mate.academy.dto.user.UserLoginRequestDto;
+import mate.academy.dto.user.UserLoginResponseDto;
+import mate.academy.exception.TooManyRequestsException;
+import mate.academy.model.User;
+import mate.academy.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+@ExtendWith(MockitoExtension.class)
+public class AuthenticationServiceTest {
+    private static final String EMAIL = "bob@gmail.com";
+    private static final String PASSWORD = "password";
+    private static final String ADDRESS = "10.0.0.1";
+
+    @InjectMocks
+    private AuthenticationService authenticationService;
+
+    @Mock
+    private JwtUtil jwtUtil;
+
+    @Mock
+    private AuthenticationManager authenticationManager;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private TokenRevocationRegistry revocationRegistry;
+
+    @Mock
+    private PrincipalCache principalCache;
+
+    @Mock
+    private LoginThrottle loginThrottle;
+
+    @Mock
+    private LoginExecutor loginExecutor;
+
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setId(1L);
+        user.setEmail(EMAIL);
+        user.setRole(User.Role.CUSTOMER);
+    }
+
+    @Test
+    @DisplayName("Login with valid credentials")
+    void authenticate_ValidCredentials_ShouldReturnTokens() {
+        runLoginsInline();
+        when(authenticationManager.authenticate(any())).thenReturn(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+        when(jwtUtil.generateToken(user)).thenReturn("access-token");
+        when(refreshTokenService.issue(user)).thenReturn("refresh-token");
+
+        UserLoginResponseDto response = authenticationService.authenticate(
+                new UserLoginRequestDto(EMAIL, PASSWORD), ADDRESS);
+
+        assertThat(response.token()).isEqualTo("access-token");
+        assertThat(response.refreshToken()).isEqualTo("refresh-token");
+        verify(loginThrottle).recordSuccess(EMAIL);
+    }
+
+    @Test
+    @DisplayName("Login with a wrong password records the failure")
+    void authenticate_WrongPassword_ShouldRecordFailure() {
+        runLoginsInline();
+        when(authenticationManager.authenticate(any()))
+                .thenThrow(new BadCredentialsException("Bad credentials"));
+
+        assertThatThrownBy(() -> authenticationService.authenticate(
+                new UserLoginRequestDto(EMAIL, "wrong"), ADDRESS))
+                .isInstanceOf(BadCredentialsException.class);
+        verify(loginThrottle).recordFailure(EMAIL, ADDRESS);
+        verify(refreshTokenService, never()).issue(any());
+    }
+
+    @Test
+    @DisplayName("Login over the failure limit is refused before the password is checked")
+    void authenticate_Throttled_ShouldRejectWithoutCheckingPassword() {
+        doThrow(new TooManyRequestsException("Too many failed logins"))
+                .when(loginThrottle).checkAllowed(EMAIL, ADDRESS);
+
+        assertThatThrownBy(() -> authenticationService.authenticate(
+                new UserLoginRequestDto(EMAIL, PASSWORD), ADDRESS))
+                .isInstanceOf(TooManyRequestsException.class);
+        verifyNoInteractions(loginExecutor, authenticationManager);
+    }
+
+    @Test
+    @DisplayName("Refresh with a valid refresh token issues new tokens")
+    void refresh_ValidToken_ShouldIssueNewTokens() {
+        when(refreshTokenService.consume("refresh-token")).thenReturn(user);
+        when(jwtUtil.generateToken(user)).thenReturn("access-token");
+        when(refreshTokenService.issue(user)).thenReturn("new-refresh-token");
+
+        UserLoginResponseDto response = authenticationService.refresh("refresh-token");
+
+        assertThat(response.token()).isEqualTo("access-token");
+        assertThat(response.refreshToken()).isEqualTo("new-refresh-token");
+        verifyNoInteractions(authenticationManager);
+    }
+
+    @Test
+    @DisplayName("Refresh with an unknown refresh token")
+    void refresh_InvalidToken_ShouldThrowException() {
+        when(refreshTokenService.consume("refresh-token"))
+                .thenThrow(new BadCredentialsException("Invalid refresh token"));
+
+        assertThatThrownBy(() -> authenticationService.refresh("refresh-token"))
+                .isInstanceOf(BadCredentialsException.class);
+        verify(refreshTokenService, never()).issue(any());
+    }
+
+    @Test
+    @DisplayName("Logout revokes the access token and the user's refresh tokens")
+    void logout_TokenWithId_ShouldRevokeTokenAndRefreshTokens() {
+        Claims claims = mock(Claims.class);
+        when(claims.getId()).thenReturn("token-id");
+        when(claims.getExpiration()).thenReturn(new Date(System.currentTimeMillis() + 60_000));
+        when(jwtUtil.verify("access-token")).thenReturn(claims);
+
+        authenticationService.logout("access-token", user);
+
+        verify(revocationRegistry).revokeToken(eq("token-id"), eq(1L), any());
+        verify(refreshTokenService).revokeAll(1L);
+    }
+
+    private void runLoginsInline() {
+        when(loginExecutor.execute(any())).thenAnswer(
+                invocation -> invocation.<Callable<?>>getArgument(0).call());
+    }
+}
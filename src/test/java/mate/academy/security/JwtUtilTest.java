@@ -0,0 +1,89 @@
+package mate.academy.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import mate.academy.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class JwtUtilTest {
+    private static final String SECRET = "secretForTesting385390952805948549u4828";
+
+    private JwtUtil jwtUtil;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setId(7L);
+        user.setEmail("bob@gmail.com");
+        user.setRole(User.Role.MANAGER);
+        user.setTokenVersion(3);
+
+        jwtUtil = new JwtUtil(SECRET, 100);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 60_000L);
+    }
+
+    @Test
+    @DisplayName("Verify a freshly generated token")
+    void verify_ValidToken_ShouldReturnClaims() {
+        String token = jwtUtil.generateToken(user);
+
+        Claims claims = jwtUtil.verify(token);
+
+        assertThat(claims.getSubject()).isEqualTo("bob@gmail.com");
+        assertThat(claims.getIssuedAt()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Rebuild the principal from the token claims")
+    void toPrincipal_TokenWithClaims_ShouldReturnUser() {
+        Claims claims = jwtUtil.verify(jwtUtil.generateToken(user));
+
+        User principal = jwtUtil.toPrincipal(claims);
+
+        assertThat(principal.getId()).isEqualTo(7L);
+        assertThat(principal.getEmail()).isEqualTo("bob@gmail.com");
+        assertThat(principal.getRole()).isEqualTo(User.Role.MANAGER);
+        assertThat(jwtUtil.getTokenVersion(claims)).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Verify the same token twice returns the cached claims")
+    void verify_SameTokenTwice_ShouldReturnCachedClaims() {
+        String token = jwtUtil.generateToken(user);
+
+        Claims first = jwtUtil.verify(token);
+        Claims second = jwtUtil.verify(token);
+
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    @DisplayName("Verify a token signed with another key")
+    void verify_ForeignSignature_ShouldThrowException() {
+        JwtUtil otherIssuer = new JwtUtil("anotherSecretForTesting9876543210abcdef", 100);
+        ReflectionTestUtils.setField(otherIssuer, "expiration", 60_000L);
+        String token = otherIssuer.generateToken(user);
+
+        assertThatThrownBy(() -> jwtUtil.verify(token))
+                .isInstanceOf(JwtException.class)
+                .hasMessage("Expired or invalid JWT token");
+    }
+
+    @Test
+    @DisplayName("Verify an expired token")
+    void verify_ExpiredToken_ShouldThrowException() {
+        ReflectionTestUtils.setField(jwtUtil, "expiration", -1_000L);
+        String token = jwtUtil.generateToken(user);
+
+        assertThatThrownBy(() -> jwtUtil.verify(token))
+                .isInstanceOf(JwtException.class)
+                .hasMessage("Expired or invalid JWT token");
+    }
+}
@@ -0,0 +1,55 @@
+package mate.academy.security;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import mate.academy.exception.TooManyRequestsException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class LoginThrottleTest {
+    private static final String ATTACKER_ADDRESS = "10.0.0.66";
+    private static final String USER_ADDRESS = "10.0.0.1";
+    private static final String EMAIL = "bob@gmail.com";
+    private static final int MAX_FAILURES_PER_EMAIL = 5;
+    private static final int MAX_FAILURES_PER_IP = 20;
+
+    private LoginThrottle loginThrottle;
+
+    @BeforeEach
+    void setUp() {
+        loginThrottle = new LoginThrottle(15, MAX_FAILURES_PER_EMAIL, MAX_FAILURES_PER_IP, 1000);
+    }
+
+    @Test
+    @DisplayName("Credential stuffing from one address throttles it but not other users")
+    void checkAllowed_AddressOverLimit_ShouldStillAllowOtherAddresses() {
+        for (int i = 0; i < MAX_FAILURES_PER_IP; i++) {
+            loginThrottle.recordFailure("victim" + i + "@gmail.com", ATTACKER_ADDRESS);
+        }
+
+        assertThatThrownBy(() -> loginThrottle.checkAllowed(EMAIL, ATTACKER_ADDRESS))
+                .isInstanceOf(TooManyRequestsException.class);
+        assertThatCode(() -> loginThrottle.checkAllowed(EMAIL, USER_ADDRESS))
+                .doesNotThrowAnyException();
+        assertThatCode(() -> loginThrottle.checkAllowed("victim0@gmail.com", USER_ADDRESS))
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("Failures on one email throttle it from every address until a success")
+    void checkAllowed_EmailOverLimit_ShouldThrottleEmailUntilSuccess() {
+        for (int i = 0; i < MAX_FAILURES_PER_EMAIL; i++) {
+            loginThrottle.recordFailure(EMAIL, ATTACKER_ADDRESS);
+        }
+
+        assertThatThrownBy(() -> loginThrottle.checkAllowed("Bob@gmail.com", USER_ADDRESS))
+                .isInstanceOf(TooManyRequestsException.class);
+
+        loginThrottle.recordSuccess(EMAIL);
+
+        assertThatCode(() -> loginThrottle.checkAllowed(EMAIL, USER_ADDRESS))
+                .doesNotThrowAnyException();
+    }
+}
@@ -0,0 +1,40 @@
+package mate.academy.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class PublicPathMatcherTest {
+    private final PublicPathMatcher matcher = new PublicPathMatcher(PublicEndpoint.ALL);
+
+    @Test
+    @DisplayName("Subtree patterns match the path itself and everything below it")
+    void matches_SubtreePattern_ShouldMatchRootAndDescendants() {
+        assertThat(matcher.matches("GET", "/cars")).isTrue();
+        assertThat(matcher.matches("GET", "/cars/")).isTrue();
+        assertThat(matcher.matches("GET", "/cars/5")).isTrue();
+        assertThat(matcher.matches("GET", "/cars/available")).isTrue();
+        assertThat(matcher.matches("GET", "/swagger-ui/index.html")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Methods outside the endpoint's method are not public")
+    void matches_OtherMethod_ShouldNotMatch() {
+        assertThat(matcher.matches("POST", "/cars")).isFalse();
+        assertThat(matcher.matches("DELETE", "/cars/5")).isFalse();
+        assertThat(matcher.matches("GET", "/auth/login")).isFalse();
+        assertThat(matcher.matches("POST", "/error")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Exact patterns match only whole segments")
+    void matches_ExactPattern_ShouldMatchWholeSegmentsOnly() {
+        assertThat(matcher.matches("POST", "/auth/login")).isTrue();
+        assertThat(matcher.matches("POST", "/auth/logout")).isFalse();
+        assertThat(matcher.matches("POST", "/auth/login/extra")).isFalse();
+        assertThat(matcher.matches("GET", "/carsharing")).isFalse();
+        assertThat(matcher.matches("GET", "/healthz")).isFalse();
+        assertThat(matcher.matches("GET", "/rentals")).isFalse();
+    }
+}
@@ -0,0 +1,110 @@
+package mate.academy.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import mate.academy.model.RefreshToken;
+import mate.academy.model.User;
+import mate.academy.repository.RefreshTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+public class RefreshTokenServiceTest {
+    @InjectMocks
+    private RefreshTokenService refreshTokenService;
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(refreshTokenService, "refreshExpirationDays", 30L);
+        user = new User();
+        user.setId(1L);
+        user.setEmail("bob@gmail.com");
+    }
+
+    @Test
+    @DisplayName("Issue stores only the hash of the token")
+    void issue_ValidUser_ShouldStoreHash() {
+        String token = refreshTokenService.issue(user);
+
+        ArgumentCaptor<RefreshToken> captor = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(captor.capture());
+        assertThat(captor.getValue().getTokenHash()).hasSize(64).isNotEqualTo(token);
+        assertThat(captor.getValue().getUser()).isEqualTo(user);
+    }
+
+    @Test
+    @DisplayName("Consume a valid refresh token")
+    void consume_ValidToken_ShouldReturnOwnerAndDeleteToken() {
+        RefreshToken stored = storedRefreshToken(LocalDateTime.now().plusDays(1));
+        when(refreshTokenRepository.findByTokenHash(any())).thenReturn(Optional.of(stored));
+        when(refreshTokenRepository.deleteByTokenHash(any())).thenReturn(1);
+
+        User actual = refreshTokenService.consume("refresh-token");
+
+        ArgumentCaptor<String> hash = ArgumentCaptor.forClass(String.class);
+        verify(refreshTokenRepository).findByTokenHash(hash.capture());
+        verify(refreshTokenRepository).deleteByTokenHash(hash.getValue());
+        assertThat(actual).isEqualTo(user);
+    }
+
+    @Test
+    @DisplayName("Consume a refresh token that a concurrent refresh deleted first")
+    void consume_AlreadyDeleted_ShouldThrowException() {
+        RefreshToken stored = storedRefreshToken(LocalDateTime.now().plusDays(1));
+        when(refreshTokenRepository.findByTokenHash(any())).thenReturn(Optional.of(stored));
+        when(refreshTokenRepository.deleteByTokenHash(any())).thenReturn(0);
+
+        assertThatThrownBy(() -> refreshTokenService.consume("refresh-token"))
+                .isInstanceOf(BadCredentialsException.class)
+                .hasMessage("Invalid refresh token");
+    }
+
+    @Test
+    @DisplayName("Consume an expired refresh token")
+    void consume_ExpiredToken_ShouldThrowException() {
+        RefreshToken stored = storedRefreshToken(LocalDateTime.now().minusMinutes(1));
+        when(refreshTokenRepository.findByTokenHash(any())).thenReturn(Optional.of(stored));
+
+        assertThatThrownBy(() -> refreshTokenService.consume("refresh-token"))
+                .isInstanceOf(BadCredentialsException.class)
+                .hasMessage("Invalid refresh token");
+        verify(refreshTokenRepository, never()).deleteByTokenHash(any());
+    }
+
+    @Test
+    @DisplayName("Consume an unknown refresh token")
+    void consume_UnknownToken_ShouldThrowException() {
+        when(refreshTokenRepository.findByTokenHash(any())).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> refreshTokenService.consume("refresh-token"))
+                .isInstanceOf(BadCredentialsException.class)
+                .hasMessage("Invalid refresh token");
+    }
+
+    private RefreshToken storedRefreshToken(LocalDateTime expiresAt) {
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setUser(user);
+        refreshToken.setExpiresAt(expiresAt);
+        return refreshToken;
+    }
+}
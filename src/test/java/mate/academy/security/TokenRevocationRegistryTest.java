@@ -0,0 +1,132 @@
+package mate.academy.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.List;
+import mate.academy.model.RevokedToken;
+import mate.academy.repository.RevokedTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+public class TokenRevocationRegistryTest {
+    @InjectMocks
+    private TokenRevocationRegistry registry;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(registry, "expectedTokens", 1000);
+    }
+
+    @Test
+    @DisplayName("Tokens persisted before startup are revoked")
+    void init_PersistedTokens_ShouldBeRevoked() {
+        RevokedToken revokedToken = new RevokedToken();
+        revokedToken.setTokenId("persisted");
+        revokedToken.setUserId(1L);
+        revokedToken.setExpiresAt(LocalDateTime.now().plusHours(1));
+        when(revokedTokenRepository.findAllByExpiresAtAfter(any())).thenReturn(
+                List.of(revokedToken));
+
+        registry.init();
+
+        assertThat(registry.isTokenRevoked("persisted")).isTrue();
+        assertThat(registry.isTokenRevoked("other")).isFalse();
+        assertThat(registry.isTokenRevoked(null)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Revoke a token on logout")
+    void revokeToken_NewToken_ShouldPersistAndReject() {
+        registry.init();
+
+        registry.revokeToken("logged-out", 1L, LocalDateTime.now().plusHours(1));
+
+        verify(revokedTokenRepository).save(any(RevokedToken.class));
+        assertThat(registry.isTokenRevoked("logged-out")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Purge drops expired revocations")
+    void purgeExpired_ExpiredToken_ShouldForgetIt() {
+        registry.init();
+        registry.revokeToken("expired", 1L, LocalDateTime.now().minusMinutes(1));
+        registry.revokeToken("live", 1L, LocalDateTime.now().plusHours(1));
+
+        registry.purgeExpired();
+
+        verify(revokedTokenRepository).deleteExpired(any());
+        assertThat(registry.isTokenRevoked("expired")).isFalse();
+        assertThat(registry.isTokenRevoked("live")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Tokens issued before a version bump are revoked")
+    void revokeBefore_OlderVersion_ShouldBeRevoked() {
+        registry.init();
+
+        registry.revokeBefore(1L, 2);
+
+        assertThat(registry.isRevoked(1L, 1)).isTrue();
+        assertThat(registry.isRevoked(1L, 2)).isFalse();
+        assertThat(registry.isRevoked(2L, 0)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Reload picks up a version bump committed by another node")
+    void reload_VersionBumpedElsewhere_ShouldRevokeOlderTokens() {
+        registry.init();
+        assertThat(registry.isRevoked(1L, 1)).isFalse();
+
+        doAnswer(invocation -> {
+            ResultSet resultSet = mock(ResultSet.class);
+            when(resultSet.getLong("id")).thenReturn(1L);
+            when(resultSet.getInt("token_version")).thenReturn(2);
+            invocation.<RowCallbackHandler>getArgument(1).processRow(resultSet);
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+        registry.reload();
+
+        assertThat(registry.isRevoked(1L, 1)).isTrue();
+        assertThat(registry.isRevoked(1L, 2)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Reload picks up a logout handled by another node")
+    void reload_TokenRevokedElsewhere_ShouldBeRevoked() {
+        registry.init();
+        assertThat(registry.isTokenRevoked("elsewhere")).isFalse();
+
+        RevokedToken revokedToken = new RevokedToken();
+        revokedToken.setTokenId("elsewhere");
+        revokedToken.setUserId(1L);
+        revokedToken.setExpiresAt(LocalDateTime.now().plusMinutes(10));
+        when(revokedTokenRepository.findAllByExpiresAtAfter(any())).thenReturn(
+                List.of(revokedToken));
+        registry.reload();
+
+        assertThat(registry.isTokenRevoked("elsewhere")).isTrue();
+    }
+}
@@ -0,0 +1,258 @@
+package mate.academy.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import mate.academy.dto.rental.RentalBookingRow;
+import mate.academy.exception.InvalidDateRangeException;
+import mate.academy.model.Car;
+import mate.academy.model.Rental;
+import mate.academy.repository.CarRepository;
+import mate.academy.repository.RentalRepository;
+import mate.academy.service.availability.AvailabilityServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public class AvailabilityServiceTest {
+    private static final LocalDateTime NEXT_MONTH = LocalDateTime.now().plusMonths(1);
+
+    @InjectMocks
+    private AvailabilityServiceImpl availabilityService;
+
+    @Mock
+    private RentalRepository rentalRepository;
+
+    @Mock
+    private CarRepository carRepository;
+
+    private final Map<Long, Car> cars = new HashMap<>();
+    private final List<Rental> storedRentals = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(carRepository.lockInventory(anyLong()))
+                .thenAnswer(invocation -> Optional.ofNullable(cars.get(invocation.getArgument(0)))
+                        .map(Car::getInventory));
+        lenient().when(rentalRepository.findActiveByCarIdForShare(anyLong(), any()))
+                .thenAnswer(invocation -> storedRentals.stream()
+                        .filter(rental -> rental.getCar().getId()
+                                .equals(invocation.getArgument(0)))
+                        .toList());
+    }
+
+    @Test
+    @DisplayName("Booking for next month does not consume a unit today")
+    void findFullyBookedCarIds_FutureBooking_ShouldKeepCarAvailableToday() {
+        Car car = createCar(1L, 1);
+        reserve(createRental(1L, car, NEXT_MONTH, NEXT_MONTH.plusDays(3)));
+
+        LocalDate today = LocalDate.now();
+        LocalDate firstDay = NEXT_MONTH.toLocalDate();
+
+        assertThat(availabilityService.findFullyBookedCarIds(today, today.plusDays(2))).isEmpty();
+        assertThat(availabilityService.findFullyBookedCarIds(firstDay, firstDay.plusDays(1)))
+                .containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("Reserve counts only bookings overlapping at the same moment")
+    void reserve_SequentialBookings_ShouldCountPeakOverlap() {
+        Car car = createCar(1L, 3);
+        reserve(createRental(1L, car, NEXT_MONTH, NEXT_MONTH.plusDays(2)));
+        reserve(createRental(
+                2L, car, NEXT_MONTH.plusDays(2), NEXT_MONTH.plusDays(4)));
+        reserve(createRental(
+                3L, car, NEXT_MONTH.plusDays(1), NEXT_MONTH.plusDays(3)));
+        reserve(createRental(4L, car, NEXT_MONTH, NEXT_MONTH.plusDays(4)));
+
+        Rental overlapping = createRental(5L, car, NEXT_MONTH, NEXT_MONTH.plusDays(4));
+
+        assertThatThrownBy(() -> availabilityService.reserve(overlapping))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Car is not available for rental");
+    }
+
+    @Test
+    @DisplayName("Reserve when window is fully booked")
+    void reserve_NoCapacity_ShouldThrowException() {
+        Car car = createCar(1L, 1);
+        reserve(createRental(1L, car, NEXT_MONTH, NEXT_MONTH.plusDays(3)));
+
+        Rental overlapping = createRental(2L, car, NEXT_MONTH.plusDays(2), NEXT_MONTH.plusDays(5));
+
+        assertThatThrownBy(() -> availabilityService.reserve(overlapping))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Car is not available for rental");
+    }
+
+    @Test
+    @DisplayName("Reserve with return date before rental date")
+    void reserve_InvalidWindow_ShouldThrowException() {
+        Car car = createCar(1L, 1);
+        Rental rental = createRental(1L, car, NEXT_MONTH, NEXT_MONTH.minusDays(1));
+
+        assertThatThrownBy(() -> availabilityService.reserve(rental))
+                .isInstanceOf(InvalidDateRangeException.class)
+                .hasMessage("Return date must be after rental date");
+    }
+
+    @Test
+    @DisplayName("Find fully booked cars for a day range")
+    void findFullyBookedCarIds_BookedDays_ShouldReturnOnlyCarsWithoutFreeUnit() {
+        Car booked = createCar(1L, 1);
+        Car shared = createCar(2L, 2);
+        reserve(createRental(1L, booked, NEXT_MONTH, NEXT_MONTH.plusDays(2)));
+        reserve(createRental(2L, shared, NEXT_MONTH, NEXT_MONTH.plusDays(2)));
+
+        LocalDate firstDay = NEXT_MONTH.toLocalDate();
+
+        assertThat(availabilityService.findFullyBookedCarIds(firstDay, firstDay.plusDays(1)))
+                .containsExactly(1L);
+        assertThat(availabilityService.findFullyBookedCarIds(
+                firstDay.plusDays(5), firstDay.plusDays(9))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Released booking clears its fully booked days")
+    void findFullyBookedCarIds_ReleasedBooking_ShouldReturnEmptySet() {
+        Car car = createCar(1L, 1);
+        Rental rental = createRental(1L, car, NEXT_MONTH, NEXT_MONTH.plusDays(2));
+        reserve(rental);
+
+        availabilityService.release(rental);
+
+        LocalDate firstDay = NEXT_MONTH.toLocalDate();
+        assertThat(availabilityService.findFullyBookedCarIds(firstDay, firstDay.plusDays(2)))
+                .isEmpty();
+    }
+
+    @Test
+    @DisplayName("Find fully booked cars with end date before start date")
+    void findFullyBookedCarIds_InvertedRange_ShouldThrowException() {
+        LocalDate firstDay = NEXT_MONTH.toLocalDate();
+
+        assertThatThrownBy(() -> availabilityService.findFullyBookedCarIds(
+                firstDay, firstDay.minusDays(1)))
+                .isInstanceOf(InvalidDateRangeException.class)
+                .hasMessage("End date must not be before start date");
+    }
+
+    @Test
+    @DisplayName("Overdue rental keeps its car out of later available days")
+    void findFullyBookedCarIds_OverdueRental_ShouldReturnCar() {
+        Car car = createCar(1L, 1);
+        LocalDateTime lastWeek = LocalDateTime.now().minusWeeks(1);
+        when(rentalRepository.findActiveBookingRows()).thenReturn(
+                List.of(createRow(1L, car, lastWeek, lastWeek.plusDays(2))));
+        availabilityService.init();
+
+        LocalDate firstDay = NEXT_MONTH.toLocalDate();
+
+        assertThat(availabilityService.findFullyBookedCarIds(firstDay, firstDay.plusDays(1)))
+                .containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("Reserve when another node stored an overlapping booking")
+    void reserve_BookingStoredElsewhere_ShouldThrowException() {
+        Car car = createCar(1L, 1);
+        storedRentals.add(createRental(7L, car, NEXT_MONTH, NEXT_MONTH.plusDays(3)));
+
+        Rental rental = createRental(1L, car, NEXT_MONTH.plusDays(1), NEXT_MONTH.plusDays(2));
+
+        assertThatThrownBy(() -> availabilityService.reserve(rental))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Car is not available for rental");
+    }
+
+    @Test
+    @DisplayName("Reserve when a stored overdue rental still holds the unit")
+    void reserve_OverdueRentalStored_ShouldThrowException() {
+        Car car = createCar(1L, 1);
+        LocalDateTime lastWeek = LocalDateTime.now().minusWeeks(1);
+        storedRentals.add(createRental(7L, car, lastWeek, lastWeek.plusDays(2)));
+
+        Rental rental = createRental(1L, car, NEXT_MONTH, NEXT_MONTH.plusDays(2));
+
+        assertThatThrownBy(() -> availabilityService.reserve(rental))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Car is not available for rental");
+    }
+
+    @Test
+    @DisplayName("Growing the fleet of a car clears its fully booked days")
+    void updateCapacity_MoreUnits_ShouldClearFullyBookedDays() {
+        Car car = createCar(1L, 1);
+        reserve(createRental(1L, car, NEXT_MONTH, NEXT_MONTH.plusDays(2)));
+        LocalDate firstDay = NEXT_MONTH.toLocalDate();
+
+        car.setInventory(2);
+        availabilityService.updateCapacity(car);
+
+        assertThat(availabilityService.findFullyBookedCarIds(firstDay, firstDay.plusDays(1)))
+                .isEmpty();
+    }
+
+    @Test
+    @DisplayName("Reload picks up bookings made and completed on other nodes")
+    void reload_BookingsChangedElsewhere_ShouldReplaceSchedules() {
+        Car completed = createCar(1L, 1);
+        Car booked = createCar(2L, 1);
+        when(rentalRepository.findActiveBookingRows())
+                .thenReturn(List.of(createRow(1L, completed, NEXT_MONTH, NEXT_MONTH.plusDays(2))))
+                .thenReturn(List.of(createRow(2L, booked, NEXT_MONTH, NEXT_MONTH.plusDays(2))));
+        availabilityService.init();
+        LocalDate firstDay = NEXT_MONTH.toLocalDate();
+
+        availabilityService.reload();
+
+        assertThat(availabilityService.findFullyBookedCarIds(firstDay, firstDay.plusDays(1)))
+                .containsExactly(2L);
+    }
+
+    private void reserve(Rental rental) {
+        availabilityService.reserve(rental);
+        availabilityService.track(rental);
+        storedRentals.add(rental);
+    }
+
+    private Car createCar(Long id, int inventory) {
+        Car car = new Car();
+        car.setId(id);
+        car.setInventory(inventory);
+        cars.put(id, car);
+        return car;
+    }
+
+    private Rental createRental(Long id, Car car, LocalDateTime from, LocalDateTime to) {
+        Rental rental = new Rental();
+        rental.setId(id);
+        rental.setCar(car);
+        rental.setRentalDate(from);
+        rental.setReturnDate(to);
+        return rental;
+    }
+
+    private RentalBookingRow createRow(
+            Long id, Car car, LocalDateTime from, LocalDateTime to
+    ) {
+        return new RentalBookingRow(id, car.getId(), car.getInventory(), from, to);
+    }
+}
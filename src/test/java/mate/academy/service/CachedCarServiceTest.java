@@ -0,0 +1,130 @@
+package mate.academy.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+import mate.academy.config.CacheConfig;
+import mate.academy.dto.car.CarDto;
+import mate.academy.mapper.CarMapper;
+import mate.academy.model.Car;
+import mate.academy.repository.CarRepository;
+import mate.academy.service.availability.AvailabilityService;
+import mate.academy.service.car.CarService;
+import mate.academy.service.car.CarServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+@SpringJUnitConfig({CacheConfig.class, CarServiceImpl.class})
+public class CachedCarServiceTest {
+    @Autowired
+    private CarService carService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @MockitoBean
+    private CarRepository carRepository;
+
+    @MockitoBean
+    private CarMapper carMapper;
+
+    @MockitoBean
+    private AvailabilityService availabilityService;
+
+    private Car car;
+    private CarDto carDto;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+
+        car = new Car();
+        car.setId(1L);
+        car.setModel("X5");
+        carDto = new CarDto();
+        carDto.setId(1L);
+        carDto.setModel("X5");
+
+        when(carRepository.findById(1L)).thenReturn(Optional.of(car));
+        when(carRepository.save(any(Car.class))).thenReturn(car);
+        when(carMapper.toDto(car)).thenReturn(carDto);
+        when(carMapper.toModel(any(CarDto.class))).thenReturn(car);
+    }
+
+    @Test
+    @DisplayName("Repeated getById is served from the cache")
+    void getById_CalledTwice_ShouldHitRepositoryOnce() {
+        carService.getById(1L);
+        CarDto actual = carService.getById(1L);
+
+        assertThat(actual).isEqualTo(carDto);
+        verify(carRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("Repeated findAll for the same page is served from the cache")
+    void findAll_SamePageTwice_ShouldHitRepositoryOnce() {
+        Pageable pageable = PageRequest.of(0, 10);
+        when(carRepository.findAll(pageable)).thenReturn(new PageImpl<>(List.of(car)));
+
+        carService.findAll(pageable);
+        carService.findAll(pageable);
+
+        verify(carRepository, times(1)).findAll(pageable);
+    }
+
+    @Test
+    @DisplayName("Update refreshes the cached car and drops cached pages")
+    void update_CachedCar_ShouldRefreshEntryAndEvictPages() {
+        Pageable pageable = PageRequest.of(0, 10);
+        when(carRepository.findAll(pageable)).thenReturn(new PageImpl<>(List.of(car)));
+        carService.getById(1L);
+        carService.findAll(pageable);
+
+        carService.update(carDto, 1L);
+        clearInvocations(carRepository);
+        carService.getById(1L);
+        carService.findAll(pageable);
+
+        verify(carRepository, times(0)).findById(1L);
+        verify(carRepository, times(1)).findAll(pageable);
+    }
+
+    @Test
+    @DisplayName("Delete evicts the cached car")
+    void deleteById_CachedCar_ShouldEvictEntry() {
+        carService.getById(1L);
+
+        carService.deleteById(1L);
+        carService.getById(1L);
+
+        verify(carRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("Save drops cached pages")
+    void save_NewCar_ShouldEvictPages() {
+        Pageable pageable = PageRequest.of(0, 10);
+        when(carRepository.findAll(pageable)).thenReturn(new PageImpl<>(List.of(car)));
+        carService.findAll(pageable);
+
+        carService.save(carDto);
+        carService.findAll(pageable);
+
+        verify(carRepository, times(2)).findAll(pageable);
+    }
+}
@@ -11,13 +11,16 @@ import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import mate.academy.dto.car.CarDto;
 import mate.academy.exception.EntityNotFoundException;
 import mate.academy.mapper.CarMapper;
 import mate.academy.model.Car;
 import mate.academy.repository.CarRepository;
+import mate.academy.service.availability.AvailabilityService;
 import mate.academy.service.car.CarServiceImpl;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -41,6 +44,49 @@ public class CarServiceTest {
     @Mock
     private CarMapper carMapper;
 
+    @Mock
+    private AvailabilityService availabilityService;
+
+    @Test
+    @DisplayName("Find available cars when some cars are fully booked")
+    void findAvailable_FullyBookedCars_ShouldExcludeThem() {
+        LocalDate from = LocalDate.of(2026, 3, 1);
+        LocalDate to = LocalDate.of(2026, 3, 5);
+
+        Car car = new Car();
+        car.setId(2L);
+        CarDto carDto = new CarDto();
+        carDto.setId(2L);
+
+        Pageable pageable = PageRequest.of(0, 10);
+
+        when(availabilityService.findFullyBookedCarIds(from, to)).thenReturn(Set.of(1L));
+        when(carRepository.findAllByIdNotInAndInventoryGreaterThan(Set.of(1L), 0, pageable))
+                .thenReturn(new PageImpl<>(List.of(car), pageable, 1));
+        when(carMapper.toDto(car)).thenReturn(carDto);
+
+        Page<CarDto> actual = carService.findAvailable(from, to, pageable);
+
+        assertThat(actual.getContent()).containsExactly(carDto);
+    }
+
+    @Test
+    @DisplayName("Find available cars when nothing is fully booked")
+    void findAvailable_NoFullyBookedCars_ShouldReturnCarsInStock() {
+        LocalDate from = LocalDate.of(2026, 3, 1);
+        LocalDate to = LocalDate.of(2026, 3, 5);
+        Pageable pageable = PageRequest.of(0, 10);
+
+        when(availabilityService.findFullyBookedCarIds(from, to)).thenReturn(Set.of());
+        when(carRepository.findAllByInventoryGreaterThan(0, pageable))
+                .thenReturn(new PageImpl<>(List.of(), pageable, 0));
+
+        Page<CarDto> actual = carService.findAvailable(from, to, pageable);
+
+        assertThat(actual.getContent()).isEmpty();
+        verify(carRepository, times(1)).findAllByInventoryGreaterThan(0, pageable);
+    }
+
     @Test
     @DisplayName("Save book with valid data")
     void save_ValidCarDto_ShouldReturnCarDto() {
@@ -203,6 +249,7 @@ public class CarServiceTest {
         CarDto result = carService.update(carDto, validId);
 
         assertThat(result).isEqualTo(updatedCarDto);
+        verify(availabilityService).updateCapacity(updatedCar);
         verifyNoMoreInteractions(carMapper, carRepository);
     }
 
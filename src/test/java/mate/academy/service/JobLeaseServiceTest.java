@@ -0,0 +1,133 @@
+package mate.academy.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import mate.academy.service.lease.JobLeaseServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@ExtendWith(MockitoExtension.class)
+public class JobLeaseServiceTest {
+    private static final String LEASE = "daily-telegram-notification";
+    private static final Duration MIN_HOLD = Duration.ofMinutes(60);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private JobLeaseServiceImpl jobLeaseService;
+
+    @BeforeEach
+    void setUp() {
+        jobLeaseService = new JobLeaseServiceImpl(jdbcTemplate, 60);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jobLeaseService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Run the job when the expired lease is taken over")
+    void runExclusively_LeaseExpired_ShouldRunJobAndRelease() {
+        when(jdbcTemplate.update(startsWith("UPDATE job_leases\nSET owner"),
+                anyString(), eq(60L), eq(LEASE), anyString())).thenReturn(1);
+        AtomicBoolean ran = new AtomicBoolean();
+
+        assertTrue(jobLeaseService.runExclusively(LEASE, MIN_HOLD, () -> ran.set(true)));
+
+        assertTrue(ran.get());
+        verify(jdbcTemplate).update(startsWith("UPDATE job_leases\nSET expires_at = GREATEST"),
+                eq(3600L), eq(LEASE), anyString());
+    }
+
+    @Test
+    @DisplayName("Run the job when the lease is taken for the first time")
+    void runExclusively_NoLeaseRow_ShouldInsertAndRunJob() {
+        when(jdbcTemplate.update(startsWith("UPDATE job_leases\nSET owner"),
+                anyString(), eq(60L), eq(LEASE), anyString())).thenReturn(0);
+        when(jdbcTemplate.update(startsWith("INSERT INTO job_leases"),
+                eq(LEASE), anyString(), eq(60L))).thenReturn(1);
+        AtomicBoolean ran = new AtomicBoolean();
+
+        assertTrue(jobLeaseService.runExclusively(LEASE, MIN_HOLD, () -> ran.set(true)));
+
+        assertTrue(ran.get());
+    }
+
+    @Test
+    @DisplayName("Skip the job when another node holds the lease")
+    void runExclusively_LeaseHeldElsewhere_ShouldSkipJob() {
+        when(jdbcTemplate.update(startsWith("UPDATE job_leases\nSET owner"),
+                anyString(), eq(60L), eq(LEASE), anyString())).thenReturn(0);
+        when(jdbcTemplate.update(startsWith("INSERT INTO job_leases"),
+                eq(LEASE), anyString(), eq(60L))).thenThrow(new DuplicateKeyException("taken"));
+        AtomicBoolean ran = new AtomicBoolean();
+
+        assertFalse(jobLeaseService.runExclusively(LEASE, MIN_HOLD, () -> ran.set(true)));
+
+        assertFalse(ran.get());
+        verify(jdbcTemplate, never()).update(
+                startsWith("UPDATE job_leases\nSET expires_at = GREATEST"), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Release the lease when the job fails")
+    void runExclusively_JobThrows_ShouldReleaseAndRethrow() {
+        when(jdbcTemplate.update(startsWith("UPDATE job_leases\nSET owner"),
+                anyString(), eq(60L), eq(LEASE), anyString())).thenReturn(1);
+
+        assertThrows(IllegalStateException.class,
+                () -> jobLeaseService.runExclusively(LEASE, MIN_HOLD, () -> {
+                    throw new IllegalStateException("Telegram is down");
+                }));
+
+        verify(jdbcTemplate).update(startsWith("UPDATE job_leases\nSET expires_at = GREATEST"),
+                eq(3600L), eq(LEASE), anyString());
+    }
+
+    @Test
+    @DisplayName("Announce this node with a row that lives for the lease TTL")
+    void announce_ShouldUpsertNodeRow() {
+        jobLeaseService.announce();
+
+        verify(jdbcTemplate).update(startsWith("INSERT INTO job_leases"),
+                startsWith("node:"), anyString(), eq(60L), eq(60L));
+    }
+
+    @Test
+    @DisplayName("Count the nodes whose rows have not expired")
+    void countLiveNodes_ShouldCountNodeRows() {
+        when(jdbcTemplate.queryForObject(startsWith("SELECT COUNT(*)"), eq(Integer.class)))
+                .thenReturn(3);
+
+        assertEquals(3, jobLeaseService.countLiveNodes());
+    }
+
+    @Test
+    @DisplayName("Remove this node's row on shutdown")
+    void shutdown_ShouldDeleteNodeRow() {
+        jobLeaseService.shutdown();
+
+        verify(jdbcTemplate).update(startsWith("DELETE FROM job_leases WHERE name"),
+                startsWith("node:"));
+    }
+}
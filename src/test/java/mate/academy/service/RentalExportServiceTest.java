@@ -0,0 +1,106 @@
+package mate.academy.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import mate.academy.dto.rental.RentalExportFormat;
+import mate.academy.service.rental.RentalExportServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+@ExtendWith(MockitoExtension.class)
+public class RentalExportServiceTest {
+    @InjectMocks
+    private RentalExportServiceImpl rentalExportService;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    private ResultSet row;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        row = mock(ResultSet.class);
+        when(row.getLong("id")).thenReturn(1L);
+        when(row.getObject("rental_date", LocalDateTime.class))
+                .thenReturn(LocalDateTime.of(2025, 1, 20, 14, 30));
+        when(row.getObject("return_date", LocalDateTime.class))
+                .thenReturn(LocalDateTime.of(2025, 1, 25, 14, 30));
+        when(row.getObject("actual_return_date", LocalDateTime.class)).thenReturn(null);
+        when(row.getLong("car_id")).thenReturn(2L);
+        when(row.getString("brand")).thenReturn("BMW");
+        when(row.getString("model")).thenReturn("X5, M");
+        when(row.getLong("user_id")).thenReturn(3L);
+        when(row.getString("email")).thenReturn("bob@gmail.com");
+
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(row);
+            handler.processRow(row);
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class),
+                any(RowCallbackHandler.class));
+    }
+
+    @Test
+    @DisplayName("Export rentals as newline-delimited JSON")
+    void export_Ndjson_ShouldWriteOneObjectPerLine() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        rentalExportService.export(RentalExportFormat.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readTree(lines[0]).get("carModel").asText()).isEqualTo("X5, M");
+        assertThat(objectMapper.readTree(lines[0]).get("rentalDate").asText())
+                .isEqualTo("2025-01-20T14:30");
+        assertThat(objectMapper.readTree(lines[1]).get("actualReturnDate").isNull()).isTrue();
+        assertThat(lines[1]).startsWith("{");
+    }
+
+    @Test
+    @DisplayName("Export rentals as CSV")
+    void export_Csv_ShouldWriteHeaderAndEscapedRows() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        rentalExportService.export(RentalExportFormat.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(3);
+        assertThat(lines[0]).startsWith("id,rental_date");
+        assertThat(lines[1]).isEqualTo(
+                "1,2025-01-20T14:30,2025-01-25T14:30,,2,BMW,\"X5, M\",3,bob@gmail.com");
+    }
+
+    @Test
+    @DisplayName("Quote CSV values holding a carriage return")
+    void export_CsvValueWithCarriageReturn_ShouldQuoteValue() throws Exception {
+        when(row.getString("brand")).thenReturn("BMW\r");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        rentalExportService.export(RentalExportFormat.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines[1]).contains(",\"BMW\r\",");
+    }
+}
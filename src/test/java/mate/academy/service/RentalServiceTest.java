@@ -6,6 +6,8 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -14,22 +16,28 @@ import static org.mockito.Mockito.when;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import mate.academy.dto.CursorPageResponse;
+import mate.academy.dto.rental.RentalCursor;
 import mate.academy.dto.rental.RentalDetailDto;
 import mate.academy.dto.rental.RentalFilterRequestDto;
 import mate.academy.dto.rental.RentalRequestDto;
+import mate.academy.exception.BadRequestException;
 import mate.academy.exception.EntityNotFoundException;
 import mate.academy.mapper.RentalMapper;
 import mate.academy.model.Car;
 import mate.academy.model.Rental;
 import mate.academy.model.User;
 import mate.academy.notification.NotificationService;
+import mate.academy.notification.OverdueRentalWatcher;
 import mate.academy.repository.CarRepository;
 import mate.academy.repository.RentalRepository;
 import mate.academy.repository.UserRepository;
+import mate.academy.service.availability.AvailabilityService;
 import mate.academy.service.rental.RentalServiceImpl;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -54,6 +62,12 @@ public class RentalServiceTest {
     @Mock
     private NotificationService notificationService;
 
+    @Mock
+    private AvailabilityService availabilityService;
+
+    @Mock
+    private OverdueRentalWatcher overdueRentalWatcher;
+
     @Test
     @DisplayName("Create rental with valid data")
     void createRental_ValidData_ShouldReturnRentalDetailDto() {
@@ -95,13 +109,16 @@ public class RentalServiceTest {
         RentalDetailDto actual = rentalService.createRental(requestDto, email);
 
         assertThat(actual).isEqualTo(detailDto);
-        assertThat(car.getInventory()).isEqualTo(11);
 
         verify(carRepository, times(1)).findById(1L);
-        verify(carRepository, times(1)).save(any(Car.class));
+        verify(carRepository, never()).save(any(Car.class));
         verify(userRepository, times(1)).findByEmail(email);
-        verify(rentalRepository, times(1)).save(any(Rental.class));
-        verify(notificationService, times(1)).sendNewRentalNotification(any(Rental.class));
+        InOrder admission = inOrder(notificationService, availabilityService, rentalRepository);
+        admission.verify(notificationService).sendNewRentalNotification(any(Rental.class));
+        admission.verify(availabilityService).reserve(any(Rental.class));
+        admission.verify(rentalRepository).save(any(Rental.class));
+        verify(availabilityService, times(1)).track(rental);
+        verify(overdueRentalWatcher, times(1)).watch(rental);
     }
 
     @Test
@@ -127,13 +144,24 @@ public class RentalServiceTest {
 
         Car car = new Car();
         car.setId(carId);
-        car.setInventory(0);
+        car.setInventory(1);
+
+        String email = "bob@gmail.com";
+
+        User user = new User();
+        user.setEmail(email);
 
         when(carRepository.findById(carId)).thenReturn(Optional.of(car));
+        when(userRepository.findByEmail(email)).thenReturn(Optional.of(user));
+        doThrow(new IllegalStateException("Car is not available for rental"))
+                .when(availabilityService).reserve(any(Rental.class));
 
-        assertThatThrownBy(() -> rentalService.createRental(requestDto, "bob@gmail.com"))
+        assertThatThrownBy(() -> rentalService.createRental(requestDto, email))
                 .isInstanceOf(IllegalStateException.class)
                 .hasMessage("Car is not available for rental");
+
+        verify(rentalRepository, never()).save(any());
+        verify(availabilityService, never()).track(any());
     }
 
     @Test
@@ -160,42 +188,87 @@ public class RentalServiceTest {
 
     @Test
     @DisplayName("Get rentals for a Manager")
-    void getRentals_ForManager_ShouldReturnListOfRentalDetailDto() {
+    void getRentals_ForManager_ShouldReturnPageOfRentalDetailDto() {
         User adminUser = new User();
         adminUser.setRole(User.Role.MANAGER);
 
         RentalFilterRequestDto filter = new RentalFilterRequestDto();
 
-        List<Rental> mockRentals = List.of(new Rental(), new Rental());
-        List<RentalDetailDto> expectedDtos = List.of(new RentalDetailDto(), new RentalDetailDto());
+        List<RentalDetailDto> mockRentals = List.of(new RentalDetailDto(), new RentalDetailDto());
 
-        when(rentalRepository.findAll()).thenReturn(mockRentals);
-        when(rentalMapper.toDto(any(Rental.class))).thenReturn(new RentalDetailDto());
+        when(rentalRepository.findPage(filter, null, 21)).thenReturn(mockRentals);
 
-        List<RentalDetailDto> result = rentalService.getRentals(filter, adminUser);
+        CursorPageResponse<RentalDetailDto> result = rentalService
+                .getRentals(filter, adminUser, null, 20);
 
-        assertThat(result).hasSize(2);
-        verify(rentalMapper, times(2)).toDto(any(Rental.class));
+        assertThat(result.content()).hasSize(2);
+        assertThat(result.nextCursor()).isNull();
+        verify(rentalMapper, never()).toDto(any(Rental.class));
     }
 
     @Test
     @DisplayName("Get rentals for a Customer")
-    void getRentals_ForCustomer_ShouldReturnListOfRentalDetailDto() {
+    void getRentals_ForCustomer_ShouldReturnOwnRentals() {
         User customerUser = new User();
+        customerUser.setId(7L);
         customerUser.setRole(User.Role.CUSTOMER);
 
         RentalFilterRequestDto filter = new RentalFilterRequestDto();
+        filter.setUserId(99L);
+        filter.setIsActive(true);
+        filter.setCarType(Car.Type.SUV);
+
+        RentalFilterRequestDto ownRentals = new RentalFilterRequestDto();
+        ownRentals.setUserId(7L);
+        ownRentals.setIsActive(true);
+        ownRentals.setCarType(Car.Type.SUV);
+
+        List<RentalDetailDto> mockRentals = List.of(new RentalDetailDto());
+
+        when(rentalRepository.findPage(ownRentals, null, 21)).thenReturn(mockRentals);
+
+        CursorPageResponse<RentalDetailDto> result = rentalService
+                .getRentals(filter, customerUser, null, 20);
+
+        assertThat(result.content()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Get rentals when more rows than the limit exist")
+    void getRentals_MoreThanLimit_ShouldReturnNextCursor() {
+        User adminUser = new User();
+        adminUser.setRole(User.Role.MANAGER);
+
+        LocalDateTime rentalDate = LocalDateTime.of(2025, 1, 20, 14, 30);
+        RentalDetailDto first = new RentalDetailDto();
+        first.setId(1L);
+        first.setRentalDate(rentalDate);
+        RentalDetailDto second = new RentalDetailDto();
+        second.setId(2L);
+        second.setRentalDate(rentalDate);
+
+        RentalFilterRequestDto filter = new RentalFilterRequestDto();
+        RentalCursor after = new RentalCursor(rentalDate.minusDays(1), 5L);
 
-        List<Rental> mockRentals = List.of(new Rental());
-        List<RentalDetailDto> expectedDtos = List.of(new RentalDetailDto());
+        when(rentalRepository.findPage(filter, after, 2)).thenReturn(List.of(first, second));
 
-        when(rentalRepository.findByUserId(customerUser.getId())).thenReturn(mockRentals);
-        when(rentalMapper.toDto(any(Rental.class))).thenReturn(new RentalDetailDto());
+        CursorPageResponse<RentalDetailDto> result = rentalService
+                .getRentals(filter, adminUser, after.encode(), 1);
 
-        List<RentalDetailDto> result = rentalService.getRentals(filter, customerUser);
+        assertThat(result.content()).containsExactly(first);
+        assertThat(RentalCursor.decode(result.nextCursor()))
+                .isEqualTo(new RentalCursor(rentalDate, 1L));
+    }
 
-        assertThat(result).hasSize(1);
-        verify(rentalMapper, times(1)).toDto(any(Rental.class));
+    @Test
+    @DisplayName("Get rentals with a malformed cursor")
+    void getRentals_InvalidCursor_ShouldThrowException() {
+        User adminUser = new User();
+        adminUser.setRole(User.Role.MANAGER);
+
+        assertThatThrownBy(() -> rentalService.getRentals(
+                new RentalFilterRequestDto(), adminUser, "not-a-cursor", 20))
+                .isInstanceOf(BadRequestException.class);
     }
 
     @Test
@@ -207,6 +280,7 @@ public class RentalServiceTest {
         rental.setActualReturnDate(null);
 
         Car car = new Car();
+        car.setId(3L);
         car.setInventory(2);
         rental.setCar(car);
 
@@ -215,11 +289,11 @@ public class RentalServiceTest {
         rentalService.completeRental(rentalId);
 
         assertNotNull(rental.getActualReturnDate());
-        assertEquals(3, car.getInventory());
 
         verify(notificationService, times(1)).sendReturnRentalNotification(rental);
         verify(rentalRepository, times(1)).save(rental);
-        verify(carRepository, times(1)).save(car);
+        verify(availabilityService, times(1)).release(rental);
+        verify(overdueRentalWatcher, times(1)).unwatch(rentalId);
     }
 
     @Test
@@ -240,7 +314,7 @@ public class RentalServiceTest {
 
         verify(notificationService, never()).sendReturnRentalNotification(any());
         verify(rentalRepository, never()).save(any());
-        verify(carRepository, never()).save(any());
+        verify(availabilityService, never()).release(any());
     }
 
     @Test
@@ -249,21 +323,19 @@ public class RentalServiceTest {
         Long rentalId = 1L;
         Long userId = 2L;
 
-        Rental rental = new Rental();
-        rental.setId(rentalId);
-
         RentalDetailDto expectedDto = new RentalDetailDto();
+        expectedDto.setId(rentalId);
 
-        when(rentalRepository.findByIdAndUserId(rentalId, userId)).thenReturn(Optional.of(rental));
-        when(rentalMapper.toDto(rental)).thenReturn(expectedDto);
+        when(rentalRepository.findDetailByIdAndUserId(rentalId, userId))
+                .thenReturn(Optional.of(expectedDto));
 
         RentalDetailDto actualDto = rentalService.getRentalById(rentalId, userId);
 
         assertNotNull(actualDto);
         assertEquals(expectedDto, actualDto);
 
-        verify(rentalRepository, times(1)).findByIdAndUserId(rentalId, userId);
-        verify(rentalMapper, times(1)).toDto(rental);
+        verify(rentalRepository, times(1)).findDetailByIdAndUserId(rentalId, userId);
+        verify(rentalMapper, never()).toDto(any());
     }
 
     @Test
@@ -272,7 +344,8 @@ public class RentalServiceTest {
         Long rentalId = 1L;
         Long userId = 2L;
 
-        when(rentalRepository.findByIdAndUserId(rentalId, userId)).thenReturn(Optional.empty());
+        when(rentalRepository.findDetailByIdAndUserId(rentalId, userId))
+                .thenReturn(Optional.empty());
 
         EntityNotFoundException exception = assertThrows(EntityNotFoundException.class, () -> {
             rentalService.getRentalById(rentalId, userId);
@@ -280,7 +353,6 @@ public class RentalServiceTest {
 
         assertEquals("Can't find rental with id: " + rentalId, exception.getMessage());
 
-        verify(rentalRepository, times(1)).findByIdAndUserId(rentalId, userId);
-        verify(rentalMapper, never()).toDto(any());
+        verify(rentalRepository, times(1)).findDetailByIdAndUserId(rentalId, userId);
     }
 }
@@ -4,11 +4,13 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
+import java.sql.SQLException;
 import java.util.Optional;
 import mate.academy.dto.user.UpdateUserProfileDto;
 import mate.academy.dto.user.UserRegistrationRequestDto;
@@ -19,13 +21,18 @@ import mate.academy.exception.RegistrationException;
 import mate.academy.mapper.UserMapper;
 import mate.academy.model.User;
 import mate.academy.repository.UserRepository;
+import mate.academy.security.PrincipalCache;
+import mate.academy.security.TokenRevocationRegistry;
+import mate.academy.service.user.RegisteredEmailFilter;
 import mate.academy.service.user.UserServiceImpl;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 @ExtendWith(MockitoExtension.class)
@@ -42,6 +49,15 @@ public class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private PrincipalCache principalCache;
+
+    @Mock
+    private TokenRevocationRegistry revocationRegistry;
+
+    @Mock
+    private RegisteredEmailFilter registeredEmailFilter;
+
     @Test
     @DisplayName("Register user with valid data")
     void register_ValidData_ShouldReturnUserResponseDto() throws RegistrationException {
@@ -63,20 +79,20 @@ public class UserServiceTest {
         responseDto.setFirstName(user.getFirstName());
         responseDto.setLastName(user.getLastName());
 
-        when(userRepository.existsByEmail(requestDto.getEmail())).thenReturn(false);
+        when(registeredEmailFilter.mightBeRegistered(requestDto.getEmail())).thenReturn(false);
         when(userMapper.toEntity(requestDto)).thenReturn(user);
         when(passwordEncoder.encode(requestDto.getPassword())).thenReturn("encodedPassword");
-        when(userRepository.save(user)).thenReturn(user);
+        when(userRepository.saveAndFlush(user)).thenReturn(user);
         when(userMapper.toUserResponse(user)).thenReturn(responseDto);
 
         UserResponseDto actualResponse = userService.register(requestDto);
 
         assertThat(actualResponse).isEqualTo(responseDto);
 
-        verify(userRepository, times(1)).existsByEmail(requestDto.getEmail());
         verify(userMapper, times(1)).toEntity(requestDto);
         verify(passwordEncoder, times(1)).encode(requestDto.getPassword());
-        verify(userRepository, times(1)).save(user);
+        verify(userRepository, times(1)).saveAndFlush(user);
+        verify(registeredEmailFilter, times(1)).add(requestDto.getEmail());
         verify(userMapper, times(1)).toUserResponse(user);
         verifyNoMoreInteractions(userRepository, userMapper, passwordEncoder);
     }
@@ -91,6 +107,7 @@ public class UserServiceTest {
         requestDto.setFirstName("Bob");
         requestDto.setLastName("Snow");
 
+        when(registeredEmailFilter.mightBeRegistered(requestDto.getEmail())).thenReturn(true);
         when(userRepository.existsByEmail(requestDto.getEmail())).thenReturn(true);
 
         assertThatThrownBy(() -> userService.register(requestDto))
@@ -102,6 +119,54 @@ public class UserServiceTest {
         verifyNoMoreInteractions(userRepository, userMapper, passwordEncoder);
     }
 
+    @Test
+    @DisplayName("Register user when the insert hits the unique email constraint")
+    void register_UniqueConstraintViolation_ShouldThrowRegistrationException() {
+        UserRegistrationRequestDto requestDto = new UserRegistrationRequestDto();
+        requestDto.setEmail("bob@gmail.com");
+        requestDto.setPassword("password");
+
+        User user = new User();
+        user.setEmail(requestDto.getEmail());
+        user.setPassword(requestDto.getPassword());
+
+        when(registeredEmailFilter.mightBeRegistered(requestDto.getEmail())).thenReturn(false);
+        when(userMapper.toEntity(requestDto)).thenReturn(user);
+        when(passwordEncoder.encode(requestDto.getPassword())).thenReturn("encodedPassword");
+        when(userRepository.saveAndFlush(user))
+                .thenThrow(violation("Duplicate entry", "users.email"));
+
+        assertThatThrownBy(() -> userService.register(requestDto))
+                .isInstanceOf(RegistrationException.class)
+                .hasMessageContaining("already exists.");
+
+        verify(userRepository, never()).existsByEmail(requestDto.getEmail());
+        verify(registeredEmailFilter, never()).add(requestDto.getEmail());
+    }
+
+    @Test
+    @DisplayName("Register user when the insert hits a constraint other than the email")
+    void register_OtherConstraintViolation_ShouldRethrow() {
+        UserRegistrationRequestDto requestDto = new UserRegistrationRequestDto();
+        requestDto.setEmail("bob@gmail.com");
+        requestDto.setPassword("password");
+
+        User user = new User();
+        user.setEmail(requestDto.getEmail());
+        user.setPassword(requestDto.getPassword());
+
+        DataIntegrityViolationException notNull =
+                violation("Column 'first_name' cannot be null", null);
+        when(registeredEmailFilter.mightBeRegistered(requestDto.getEmail())).thenReturn(false);
+        when(userMapper.toEntity(requestDto)).thenReturn(user);
+        when(passwordEncoder.encode(requestDto.getPassword())).thenReturn("encodedPassword");
+        when(userRepository.saveAndFlush(user)).thenThrow(notNull);
+
+        assertThatThrownBy(() -> userService.register(requestDto)).isSameAs(notNull);
+
+        verify(registeredEmailFilter, never()).add(requestDto.getEmail());
+    }
+
     @Test
     @DisplayName("Get user by valid id")
     void getUserById_ValidId_ShouldReturnUserResponseDto() {
@@ -216,7 +281,10 @@ public class UserServiceTest {
 
         assertThat(actualResponse).isEqualTo(responseDto);
         assertThat(user.getRole()).isEqualTo(User.Role.MANAGER);
+        assertThat(user.getTokenVersion()).isEqualTo(1);
 
+        verify(revocationRegistry, times(1)).revokeBefore(userId, 1);
+        verify(principalCache, times(1)).evict("bob@gmail.com");
         verifyNoMoreInteractions(userMapper, userRepository);
     }
 
@@ -230,6 +298,7 @@ public class UserServiceTest {
 
         User user = new User();
         user.setId(userId);
+        user.setEmail("bob@gmail.com");
         user.setFirstName("OldName");
         user.setLastName("OldLastName");
 
@@ -252,6 +321,7 @@ public class UserServiceTest {
         verify(userRepository, times(1)).findById(userId);
         verify(userMapper, times(1)).updateUserProfile(updateUserProfileDto, user);
         verify(userRepository, times(1)).save(user);
+        verify(principalCache, times(1)).evict("bob@gmail.com");
     }
 
     @Test
@@ -270,4 +340,9 @@ public class UserServiceTest {
 
         verifyNoMoreInteractions(userRepository);
     }
+
+    private DataIntegrityViolationException violation(String message, String constraintName) {
+        return new DataIntegrityViolationException(message, new ConstraintViolationException(
+                message, new SQLException(message), constraintName));
+    }
 }
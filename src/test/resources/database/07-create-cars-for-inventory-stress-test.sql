@@ -0,0 +1,8 @@
+insert into cars (id, model, brand, type, inventory, daily_fee)
+values (1, 'X5', 'BMW', 'SUV', 100, 130.99);
+
+insert into cars (id, model, brand, type, inventory, daily_fee)
+values (2, 'RS7', 'Audi', 'SEDAN', 100, 150.99);
+
+insert into users (id, email, first_name, last_name, password, role, chat_id)
+values (1, 'bob@gmail.com', 'Bob', 'Snow', 'password', 'CUSTOMER', '1212');
@@ -0,0 +1,4 @@
+delete from pending_notifications;
+delete from rentals;
+delete from users;
+delete from cars;